@@ -0,0 +1,113 @@
+package com.badminton.benchmark;
+
+import com.badminton.config.WebConfig;
+import com.badminton.dto.response.ApiResponse;
+import com.badminton.dto.response.BookingResponse;
+import com.badminton.dto.response.CourtResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiResponse serialization through the ObjectMapper configured in WebConfig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<BookingResponse> singleBooking;
+    private ApiResponse<List<BookingResponse>> bookingPage;
+    private ApiResponse<List<CourtResponse>> courtPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new WebConfig().objectMapper();
+
+        List<BookingResponse> bookings = new ArrayList<>();
+        List<CourtResponse> courts = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            bookings.add(booking(i));
+            courts.add(court(i));
+        }
+
+        singleBooking = ApiResponse.success(bookings.get(0), "Đặt sân thành công");
+        bookingPage = ApiResponse.success(bookings);
+        courtPage = ApiResponse.success(courts);
+    }
+
+    @Benchmark
+    public byte[] singleBooking() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(singleBooking);
+    }
+
+    @Benchmark
+    public byte[] bookingPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingPage);
+    }
+
+    @Benchmark
+    public byte[] courtPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(courtPage);
+    }
+
+    private static BookingResponse booking(int i) {
+        return BookingResponse.builder()
+                .id((long) i)
+                .userId(2L)
+                .userName("Khách hàng " + i)
+                .userPhone("09000000" + String.format("%02d", i))
+                .courtId(10L)
+                .courtName("Sân cầu lông Benchmark")
+                .courtAddress("123 Nguyễn Văn Cừ, Quận 5, TP.HCM")
+                .bookingDate(LocalDate.now().plusDays(i))
+                .startTime("18:00")
+                .endTime("20:00")
+                .courtNumber(1 + i % 4)
+                .totalPrice(new BigDecimal("240000"))
+                .status("CONFIRMED")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static CourtResponse court(int i) {
+        return CourtResponse.builder()
+                .id((long) i)
+                .name("Sân cầu lông " + i)
+                .address("123 Nguyễn Văn Cừ, Quận 5, TP.HCM")
+                .description("Sân dùng cho benchmark")
+                .pricePerHour(new BigDecimal("120000"))
+                .numberOfCourts(4)
+                .facilities(List.of("Parking", "Shower", "Locker", "Wifi"))
+                .images(List.of("https://cdn.example.com/courts/1.jpg", "https://cdn.example.com/courts/2.jpg"))
+                .openTime("06:00")
+                .closeTime("22:00")
+                .status("ACTIVE")
+                .ownerId(1L)
+                .ownerName("Chủ sân")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
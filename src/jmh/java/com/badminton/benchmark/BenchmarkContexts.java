@@ -0,0 +1,68 @@
+package com.badminton.benchmark;
+
+import com.badminton.DemoApplication;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.repository.CourtRepository;
+import com.badminton.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application against the embedded H2 "test" profile for benchmarks that need real beans.
+ */
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    // Passed as command line arguments so they win over application.properties and the test profile
+    static ConfigurableApplicationContext start(String... overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("spring.jpa.properties.hibernate.generate_statistics", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.badminton", "WARN");
+        for (String override : overrides) {
+            int separator = override.indexOf('=');
+            properties.put(override.substring(0, separator), override.substring(separator + 1));
+        }
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("test")
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+
+    static User seedUser(ConfigurableApplicationContext context, String email, String phone, User.UserRole role) {
+        User user = new User();
+        user.setFullName("Benchmark " + role.name());
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setPassword("not-used");
+        user.setRole(role);
+        return context.getBean(UserRepository.class).save(user);
+    }
+
+    static Court seedCourt(ConfigurableApplicationContext context, User owner) {
+        Court court = new Court();
+        court.setName("Sân cầu lông Benchmark");
+        court.setAddress("123 Nguyễn Văn Cừ, Quận 5, TP.HCM");
+        court.setDescription("Sân dùng cho benchmark");
+        court.setPricePerHour(new BigDecimal("120000"));
+        court.setNumberOfCourts(4);
+        court.setOpenTime("06:00");
+        court.setCloseTime("22:00");
+        court.setFacilities(List.of("Parking", "Shower", "Locker", "Wifi"));
+        court.setImages(List.of("https://cdn.example.com/courts/1.jpg", "https://cdn.example.com/courts/2.jpg"));
+        court.setOwner(owner);
+        return context.getBean(CourtRepository.class).save(court);
+    }
+}
@@ -0,0 +1,122 @@
+package com.badminton.benchmark;
+
+import com.badminton.entity.Booking;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts 10k bookings in one transaction with JDBC batching configured as in
+ * production. ids=identity maps Booking back to AUTO_INCREMENT through
+ * META-INF/orm-identity.xml, so Hibernate needs the generated key of every
+ * row and sends one INSERT per round trip; ids=pooled is the entity's real
+ * sequence mapping, which batches. H2 runs behind its TCP server so every
+ * round trip crosses a socket, as it would with MySQL.
+ * Each run is rolled back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BookingInsertBenchmark {
+
+    private static final int BOOKINGS = 10_000;
+    private static final int FLUSH_EVERY = 500;
+
+    @Param({"identity", "pooled"})
+    public String ids;
+
+    private Server server;
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate rollbackTemplate;
+    private User customer;
+    private Court court;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String datasource = "spring.datasource.url=jdbc:h2:tcp://localhost:" + server.getPort()
+                + "/mem:inserts;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        context = "identity".equals(ids)
+                ? BenchmarkContexts.start(datasource, "spring.jpa.mapping-resources=META-INF/orm-identity.xml")
+                : BenchmarkContexts.start(datasource);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        rollbackTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        User owner = BenchmarkContexts.seedUser(context, "owner@bench.vn", "0900000001", User.UserRole.OWNER);
+        customer = BenchmarkContexts.seedUser(context, "customer@bench.vn", "0900000002", User.UserRole.USER);
+        court = BenchmarkContexts.seedCourt(context, owner);
+    }
+
+    @Setup(Level.Invocation)
+    public void newBookings() {
+        bookings = new ArrayList<>(BOOKINGS);
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setUser(customer);
+            booking.setCourt(court);
+            booking.setBookingDate(firstDay.plusDays(i / 64));
+            booking.setCourtNumber(1 + i % 4);
+            booking.setStartTime(LocalTime.of(6 + i % 16, 0));
+            booking.setEndTime(LocalTime.of(7 + i % 16, 0));
+            booking.setTotalPrice(new BigDecimal("120000"));
+            bookings.add(booking);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public int insertBookings() {
+        return rollbackTemplate.execute(status -> {
+            status.setRollbackOnly();
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            for (int i = 0; i < bookings.size(); i++) {
+                entityManager.persist(bookings.get(i));
+                // Keep the persistence context small, as a real bulk import would
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            return bookings.size();
+        });
+    }
+}
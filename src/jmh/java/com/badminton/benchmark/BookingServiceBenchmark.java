@@ -0,0 +1,75 @@
+package com.badminton.benchmark;
+
+import com.badminton.dto.request.BookingRequest;
+import com.badminton.dto.response.BookingResponse;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * createBooking end to end on H2: lookups, validation, conflict check, price
+ * calculation and insert. Each call is rolled back so the slot stays free.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private TransactionTemplate rollbackTemplate;
+    private BookingRequest request;
+    private Long customerId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        bookingService = context.getBean(BookingService.class);
+        rollbackTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        User owner = BenchmarkContexts.seedUser(context, "owner@bench.vn", "0900000001", User.UserRole.OWNER);
+        User customer = BenchmarkContexts.seedUser(context, "customer@bench.vn", "0900000002", User.UserRole.USER);
+        Court court = BenchmarkContexts.seedCourt(context, owner);
+        customerId = customer.getId();
+
+        request = new BookingRequest();
+        request.setCourtId(court.getId());
+        request.setBookingDate(LocalDate.now().plusDays(7));
+        request.setStartTime("18:00");
+        request.setEndTime("20:00");
+        request.setCourtNumber(2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingResponse createBooking() {
+        return rollbackTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return bookingService.createBooking(request, customerId);
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package com.badminton.benchmark;
+
+import com.badminton.audit.AuditLog;
+import com.badminton.entity.User;
+import com.badminton.security.JwtUtil;
+import com.badminton.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation: the original per-call key/parser path against the
+ * prebuilt parser, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256";
+    static final long EXPIRATION_MS = 86_400_000L;
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtil = new JwtUtil(SECRET, EXPIRATION_MS, 10_000, 60_000, AuditLog.disabled());
+        // ttl 0 never caches, so every call pays for HMAC + JSON decode
+        uncachedJwtUtil = new JwtUtil(SECRET, EXPIRATION_MS, 10_000, 0, AuditLog.disabled());
+        principal = new UserPrincipal(42L, "bench@badminton.vn", null, User.UserRole.USER, true, 0);
+        token = cachedJwtUtil.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtUtil.generateToken(principal);
+    }
+
+    @Benchmark
+    public String legacyValidateThenGetEmail() {
+        // Original JwtUtil: key derived and parser built on every call, token verified twice
+        if (!legacyValidate(token)) {
+            return null;
+        }
+        return Jwts.parser()
+                .verifyWith(legacySigningKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public Claims parseTokenPrebuiltParser() {
+        return uncachedJwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims parseTokenVerifiedCache() {
+        return cachedJwtUtil.parseToken(token);
+    }
+
+    private static boolean legacyValidate(String authToken) {
+        try {
+            Jwts.parser()
+                    .verifyWith(legacySigningKey())
+                    .build()
+                    .parseSignedClaims(authToken);
+            return true;
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    private static SecretKey legacySigningKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+}
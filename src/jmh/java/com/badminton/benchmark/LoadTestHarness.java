@@ -0,0 +1,208 @@
+package com.badminton.benchmark;
+
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.security.JwtUtil;
+import com.badminton.security.UserPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Closed-loop HTTP load test of the blocking read endpoints, once on the
+ * platform thread pool and once on virtual threads, printing latency
+ * percentiles next to peak Tomcat connections and Hikari pool usage.
+ * <p>
+ * Arguments: {@code clients=200 seconds=20}; anything else of the form
+ * {@code key=value} is passed to the application, e.g. a MySQL datasource url.
+ */
+public final class LoadTestHarness {
+
+    private static final int POOL_SIZE = 20;
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // DevTools would relaunch main() in a restart class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        int clients = 200;
+        int seconds = 20;
+        List<String> overrides = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("clients=")) {
+                clients = Integer.parseInt(arg.substring("clients=".length()));
+            } else if (arg.startsWith("seconds=")) {
+                seconds = Integer.parseInt(arg.substring("seconds=".length()));
+            } else {
+                overrides.add(arg);
+            }
+        }
+
+        System.out.printf("%-9s %9s %7s %9s %8s %8s %8s %9s %9s %8s %8s%n", "mode", "requests", "errors",
+                "req/s", "p50 ms", "p99 ms", "max ms", "max conn", "max busy", "db used", "db wait");
+        run(false, clients, seconds, overrides);
+        run(true, clients, seconds, overrides);
+    }
+
+    private static void run(boolean virtual, int clients, int seconds, List<String> overrides) throws Exception {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.threads.virtual.enabled=" + virtual,
+                "server.tomcat.mbeanregistry.enabled=true",
+                "server.tomcat.max-connections=20000",
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "spring.datasource.hikari.register-mbeans=true",
+                "spring.datasource.hikari.pool-name=loadtest"));
+        properties.addAll(overrides);
+
+        try (ConfigurableApplicationContext context = BenchmarkContexts.start(properties.toArray(String[]::new))) {
+            long suffix = System.nanoTime() % 1_000_000;
+            User owner = BenchmarkContexts.seedUser(context, "owner" + suffix + "@load.vn",
+                    "090" + String.format("%07d", suffix), User.UserRole.OWNER);
+            User customer = BenchmarkContexts.seedUser(context, "customer" + suffix + "@load.vn",
+                    "091" + String.format("%07d", suffix), User.UserRole.USER);
+            Court court = BenchmarkContexts.seedCourt(context, owner);
+            String token = context.getBean(JwtUtil.class).generateToken(UserPrincipal.from(customer));
+
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+            LocalDate today = LocalDate.now();
+            List<HttpRequest> requests = List.of(
+                    HttpRequest.newBuilder(URI.create(base + "/bookings/my-bookings"))
+                            .header("Authorization", "Bearer " + token).build(),
+                    HttpRequest.newBuilder(URI.create(base + "/courts/" + court.getId() + "/availability?from="
+                            + today + "&to=" + today.plusDays(6))).build());
+
+            HikariPoolMXBean pool = context.getBean(DataSource.class).unwrap(HikariDataSource.class)
+                    .getHikariPoolMXBean();
+            Result result = load(requests, clients, seconds, pool);
+            System.out.printf("%-9s %9d %7d %9.0f %8.1f %8.1f %8.1f %9d %9d %8d %8d%n",
+                    virtual ? "virtual" : "platform", result.latencies.length, result.errors,
+                    result.latencies.length / (double) seconds,
+                    percentile(result.latencies, 0.50), percentile(result.latencies, 0.99),
+                    percentile(result.latencies, 1.0), result.maxConnections, result.maxBusyThreads,
+                    result.maxActiveConnections, result.maxAwaitingConnection);
+        }
+    }
+
+    private static Result load(List<HttpRequest> requests, int clients, int seconds, HikariPoolMXBean pool)
+            throws Exception {
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(4);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(httpExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> tomcatPools = server.queryNames(new ObjectName("Tomcat:type=ThreadPool,name=*"), null);
+
+        LongAccumulator maxConnections = new LongAccumulator(Math::max, 0);
+        LongAccumulator maxBusyThreads = new LongAccumulator(Math::max, 0);
+        LongAccumulator maxActive = new LongAccumulator(Math::max, 0);
+        LongAccumulator maxAwaiting = new LongAccumulator(Math::max, 0);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            for (ObjectName name : tomcatPools) {
+                maxConnections.accumulate(attribute(server, name, "connectionCount"));
+                maxBusyThreads.accumulate(attribute(server, name, "currentThreadsBusy"));
+            }
+            maxActive.accumulate(pool.getActiveConnections());
+            maxAwaiting.accumulate(pool.getThreadsAwaitingConnection());
+        }, 0, 50, TimeUnit.MILLISECONDS);
+
+        // A quarter of the run (at least 2s) warms up the JIT and is not recorded
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(2, seconds / 4));
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicInteger errors = new AtomicInteger();
+        List<long[]> perClient = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            long[] latencies = new long[1 << 16];
+            perClient.add(latencies);
+            int offset = i;
+            futures.add(workers.submit(() -> {
+                int recorded = 0;
+                for (int n = offset; ; n++) {
+                    long start = System.nanoTime();
+                    if (start >= end) {
+                        return recorded;
+                    }
+                    try {
+                        HttpResponse<Void> response = http.send(requests.get(n % requests.size()),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    if (start >= warmupEnd && recorded < latencies.length) {
+                        latencies[recorded++] = System.nanoTime() - start;
+                    }
+                }
+            }));
+        }
+        for (Future<Integer> future : futures) {
+            counts.add(future.get());
+        }
+        workers.shutdown();
+        sampler.shutdownNow();
+        httpExecutor.shutdown();
+
+        int total = counts.stream().mapToInt(Integer::intValue).sum();
+        long[] all = new long[total];
+        int position = 0;
+        for (int i = 0; i < clients; i++) {
+            System.arraycopy(perClient.get(i), 0, all, position, counts.get(i));
+            position += counts.get(i);
+        }
+        Arrays.sort(all);
+        return new Result(all, errors.get(), maxConnections.get(), maxBusyThreads.get(), maxActive.get(),
+                maxAwaiting.get());
+    }
+
+    private static long attribute(MBeanServer server, ObjectName name, String attribute) {
+        try {
+            return ((Number) server.getAttribute(name, attribute)).longValue();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Result(long[] latencies, int errors, long maxConnections, long maxBusyThreads,
+            long maxActiveConnections, long maxAwaitingConnection) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.badminton.benchmark;
+
+import com.badminton.dto.request.LoginRequest;
+import com.badminton.dto.response.AuthResponse;
+import com.badminton.entity.User;
+import com.badminton.repository.UserRepository;
+import com.badminton.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins per second per core at each BCrypt cost: the bare hash check, and
+ * the whole login (user lookup, hash on the hashing pool, token) through
+ * {@link AuthService}. One benchmark thread keeps one core busy hashing, so
+ * each score is already a per-core figure; multiply by the hashing pool size
+ * (security.password.hash.threads) for a node's ceiling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private BCryptPasswordEncoder bcrypt;
+    private String hash;
+    private LoginRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("security.password.bcrypt-strength=" + strength,
+                "audit.enabled=false");
+        authService = context.getBean(AuthService.class);
+        bcrypt = new BCryptPasswordEncoder(strength);
+        hash = bcrypt.encode(PASSWORD);
+
+        // Already at the configured cost, so no login pays for an upgrade
+        User user = BenchmarkContexts.seedUser(context, "login" + strength + "@bench.vn",
+                "092000" + strength, User.UserRole.USER);
+        user.setPassword(context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        context.getBean(UserRepository.class).save(user);
+
+        request = new LoginRequest();
+        request.setEmailOrPhone(user.getEmail());
+        request.setPassword(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return bcrypt.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public AuthResponse login() {
+        return authService.login(request);
+    }
+}
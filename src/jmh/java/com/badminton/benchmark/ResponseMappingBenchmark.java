@@ -0,0 +1,119 @@
+package com.badminton.benchmark;
+
+import com.badminton.dto.response.BookingResponse;
+import com.badminton.dto.response.CourtResponse;
+import com.badminton.entity.Booking;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.service.BookingService;
+import com.badminton.service.CourtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.AopTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping in the service layer, including the court
+ * facilities/images lists. Entities are detached, so no DB work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MethodHandle mapToBookingResponse;
+    private MethodHandle mapToCourtResponse;
+    private Booking booking;
+    private Court court;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkContexts.start();
+
+        // The mapping methods are private, call them on the unproxied service beans
+        Object bookingService = AopTestUtils.getUltimateTargetObject(context.getBean(BookingService.class));
+        Object courtService = AopTestUtils.getUltimateTargetObject(context.getBean(CourtService.class));
+        mapToBookingResponse = privateMapper(bookingService, "mapToBookingResponse", BookingResponse.class, Booking.class);
+        mapToCourtResponse = privateMapper(courtService, "mapToCourtResponse", CourtResponse.class, Court.class);
+
+        User owner = new User();
+        owner.setId(1L);
+        owner.setFullName("Chủ sân");
+        User customer = new User();
+        customer.setId(2L);
+        customer.setFullName("Khách hàng");
+        customer.setPhone("0900000002");
+
+        court = new Court();
+        court.setId(10L);
+        court.setName("Sân cầu lông Benchmark");
+        court.setAddress("123 Nguyễn Văn Cừ, Quận 5, TP.HCM");
+        court.setDescription("Sân dùng cho benchmark");
+        court.setPricePerHour(new BigDecimal("120000"));
+        court.setNumberOfCourts(4);
+        court.setOpenTime("06:00");
+        court.setCloseTime("22:00");
+        court.setFacilities(List.of("Parking", "Shower", "Locker", "Wifi"));
+        court.setImages(List.of("https://cdn.example.com/courts/1.jpg", "https://cdn.example.com/courts/2.jpg"));
+        court.setStatus(Court.CourtStatus.ACTIVE);
+        court.setOwner(owner);
+        court.setCreatedAt(LocalDateTime.now());
+
+        booking = new Booking();
+        booking.setId(100L);
+        booking.setUser(customer);
+        booking.setCourt(court);
+        booking.setBookingDate(LocalDate.now().plusDays(3));
+        booking.setStartTime(LocalTime.of(18, 0));
+        booking.setEndTime(LocalTime.of(20, 0));
+        booking.setCourtNumber(2);
+        booking.setTotalPrice(new BigDecimal("240000"));
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        booking.setCreatedAt(LocalDateTime.now());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object mapToBookingResponse() throws Throwable {
+        return mapToBookingResponse.invoke(booking);
+    }
+
+    @Benchmark
+    public Object mapToCourtResponse() throws Throwable {
+        return mapToCourtResponse.invoke(court);
+    }
+
+    private static MethodHandle privateMapper(Object target, String name, Class<?> returnType, Class<?> argType)
+            throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(target.getClass(), MethodHandles.lookup());
+        return lookup.findVirtual(target.getClass(), name, MethodType.methodType(returnType, argType))
+                .bindTo(target);
+    }
+}
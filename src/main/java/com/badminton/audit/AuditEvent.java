@@ -0,0 +1,19 @@
+package com.badminton.audit;
+
+/**
+ * One audit line. Built on the request thread, serialized by the writer.
+ */
+public record AuditEvent(
+        long timestamp,
+        String type,
+        String action,
+        String target,
+        Long actorId,
+        String actorRole,
+        String ip,
+        String detail) {
+
+    public static final String AUTH_FAILURE = "auth.failure";
+    public static final String BOOKING_TRANSITION = "booking.transition";
+    public static final String ADMIN_ACTION = "admin.action";
+}
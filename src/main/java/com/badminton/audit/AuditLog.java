@@ -0,0 +1,273 @@
+package com.badminton.audit;
+
+import com.badminton.security.UserPrincipal;
+import com.badminton.transaction.AfterCommit;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of auth failures, booking state transitions and admin actions,
+ * written as JSON lines to a rolling local file.
+ * <p>
+ * Request threads only build the event and offer it to a bounded lock-free
+ * ring buffer; when the buffer is full the event is dropped and counted,
+ * never waited for. A single background thread drains the buffer in batches,
+ * writes and flushes once per batch, and rolls the file by size.
+ */
+@Slf4j
+@Component
+public class AuditLog {
+
+    private static final int BATCH_SIZE = 512;
+
+    private final boolean enabled;
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxHistory;
+    private final long flushIntervalNanos;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    // One object per line: no separator between root values, the newline is written explicitly
+    private final JsonFactory jsonFactory = new JsonFactory().setRootValueSeparator(null);
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+    // Writer thread only
+    private FileOutputStream fileStream;
+    private OutputStream out;
+
+    public AuditLog(@Value("${audit.enabled:true}") boolean enabled,
+            @Value("${audit.file:logs/audit.log}") String file,
+            @Value("${audit.max-file-size:50MB}") DataSize maxFileSize,
+            @Value("${audit.max-history:10}") int maxHistory,
+            @Value("${audit.buffer-size:8192}") int bufferSize,
+            @Value("${audit.flush-interval:200ms}") Duration flushInterval,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.file = Paths.get(file);
+        this.maxFileSize = maxFileSize.toBytes();
+        this.maxHistory = maxHistory;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+
+        this.written = eventCounter(meterRegistry, "written");
+        this.dropped = eventCounter(meterRegistry, "dropped");
+        this.failed = eventCounter(meterRegistry, "failed");
+        Gauge.builder("audit.buffer.size", buffer, MpscRingBuffer::size)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+    }
+
+    // For benchmarks and tests that build beans by hand
+    public static AuditLog disabled() {
+        return new AuditLog(false, "audit.log", DataSize.ofMegabytes(1), 1, 2, Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("audit.events")
+                .description("Audit events by what happened to them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * A rejected token or login; recorded immediately.
+     */
+    public void authFailure(String reason, String subject) {
+        offer(event(AuditEvent.AUTH_FAILURE, reason, subject, null));
+    }
+
+    /**
+     * A booking changing status ({@code from} is null for a new booking); recorded once committed.
+     */
+    public void bookingTransition(Long bookingId, Enum<?> from, Enum<?> to) {
+        afterCommit(event(AuditEvent.BOOKING_TRANSITION, (from != null ? from.name() : "NEW") + "->" + to.name(),
+                "booking:" + bookingId, null));
+    }
+
+    /**
+     * A privileged change to someone else's data or to a court; recorded once committed.
+     */
+    public void adminAction(String action, String target, String detail) {
+        afterCommit(event(AuditEvent.ADMIN_ACTION, action, target, detail));
+    }
+
+    public long getDropped() {
+        return (long) dropped.count();
+    }
+
+    public long getWritten() {
+        return (long) written.count();
+    }
+
+    private AuditEvent event(String type, String action, String target, String detail) {
+        if (!enabled) {
+            return null;
+        }
+        UserPrincipal actor = UserPrincipal.current();
+        String ip = RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest().getRemoteAddr()
+                : null;
+        return new AuditEvent(System.currentTimeMillis(), type, action, target,
+                actor != null ? actor.getId() : null, actor != null ? actor.getRole().name() : null, ip, detail);
+    }
+
+    private void afterCommit(AuditEvent event) {
+        if (event != null) {
+            AfterCommit.run(() -> offer(event));
+        }
+    }
+
+    private void offer(AuditEvent event) {
+        if (event != null && !buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            batch.clear();
+            buffer.drainTo(batch, BATCH_SIZE);
+            if (!batch.isEmpty()) {
+                write(batch);
+            } else if (running) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            } else {
+                break;
+            }
+        }
+        closeFile();
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            if (out == null) {
+                openFile();
+            }
+            try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                for (AuditEvent event : batch) {
+                    writeEvent(json, event);
+                }
+            }
+            out.flush();
+            written.increment(batch.size());
+            if (fileStream.getChannel().size() >= maxFileSize) {
+                roll();
+            }
+        } catch (IOException e) {
+            failed.increment(batch.size());
+            log.warn("Could not write {} audit events to {}: {}", batch.size(), file, e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void writeEvent(JsonGenerator json, AuditEvent event) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("ts", Instant.ofEpochMilli(event.timestamp()).toString());
+        json.writeStringField("type", event.type());
+        json.writeStringField("action", event.action());
+        if (event.target() != null) {
+            json.writeStringField("target", event.target());
+        }
+        if (event.actorId() != null) {
+            json.writeNumberField("actor", event.actorId());
+            json.writeStringField("role", event.actorRole());
+        }
+        if (event.ip() != null) {
+            json.writeStringField("ip", event.ip());
+        }
+        if (event.detail() != null) {
+            json.writeStringField("detail", event.detail());
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void openFile() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        fileStream = new FileOutputStream(file.toFile(), true);
+        out = new BufferedOutputStream(fileStream, 64 * 1024);
+    }
+
+    // audit.log -> audit.log.1 -> ... -> audit.log.<maxHistory>, the oldest is overwritten
+    private void roll() throws IOException {
+        closeFile();
+        for (int i = maxHistory - 1; i >= 1; i--) {
+            Path older = Paths.get(file + "." + i);
+            if (Files.exists(older)) {
+                Files.move(older, Paths.get(file + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, Paths.get(file + ".1"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Could not close audit file {}: {}", file, e.getMessage());
+        }
+        out = null;
+        fileStream = null;
+    }
+}
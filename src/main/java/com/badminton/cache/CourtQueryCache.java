@@ -0,0 +1,193 @@
+package com.badminton.cache;
+
+import com.badminton.dto.response.CourtResponse;
+import com.badminton.search.CourtSearchIndex;
+import com.badminton.transaction.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache behind CourtService's public reads. Values are kept as
+ * already-serialized JSON and returned as {@link RawValue}, so a hit only
+ * costs Jackson the ApiResponse envelope. Hits, misses and evictions are
+ * exported to the meter registry.
+ * <p>
+ * Court details are evicted by id, or by owner when the owner's profile
+ * changes; listing and search pages are evicted as a group on any court write,
+ * since a write can move a court in or out of any page.
+ */
+@Component
+public class CourtQueryCache implements MeterBinder {
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<Long, Entry<CourtDetail>> details = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, Entry<RawValue>> pages = new ConcurrentHashMap<>();
+    // Bumped on every eviction so a load that raced with a write is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CourtQueryCache(ObjectMapper objectMapper,
+            @Value("${court.cache.max-entries:5000}") int maxEntries,
+            @Value("${court.cache.ttl:60s}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Court detail with its ETag, which is derived from the cached JSON so the two always match.
+     */
+    public CourtDetail getCourt(Long id, Supplier<CourtResponse> loader) {
+        return read(details, id, () -> {
+            CourtResponse court = loader.get();
+            String json = toJson(court);
+            String etag = "court-" + id + "-" + DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8));
+            return new CourtDetail(new RawValue(json), etag, court.getOwnerId());
+        });
+    }
+
+    public RawValue getPage(Object key, Supplier<?> loader) {
+        return read(pages, key, () -> new RawValue(toJson(loader.get())));
+    }
+
+    public static Object listKey(Pageable pageable) {
+        return new ListKey(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+    }
+
+    // Search ignores case and accents, so the key does too
+    public static Object searchKey(String name, String address, BigDecimal minPrice, BigDecimal maxPrice,
+            Pageable pageable) {
+        return new SearchKey(CourtSearchIndex.normalize(name), CourtSearchIndex.normalize(address),
+                strip(minPrice), strip(maxPrice), pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    /**
+     * Called by every court write; runs again after commit so concurrent readers can't re-cache old rows.
+     */
+    public void evictCourt(Long id) {
+        AfterCommit.runNowAndAfterCommit(() -> evictNow(id));
+    }
+
+    /**
+     * Called when a court owner's profile changes, since details and pages show the owner's name.
+     */
+    public void evictOwner(Long ownerId) {
+        AfterCommit.runNowAndAfterCommit(() -> evictOwnerNow(ownerId));
+    }
+
+    // Bound by the actuator at startup
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("court.cache.requests", hits, LongAdder::sum).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("court.cache.requests", misses, LongAdder::sum).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("court.cache.evictions", evictions, LongAdder::sum).register(registry);
+        Gauge.builder("court.cache.size", this, cache -> cache.details.size() + cache.pages.size())
+                .register(registry);
+    }
+
+    private <K, V> V read(ConcurrentHashMap<K, Entry<V>> map, K key, Supplier<V> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry = map.get(key);
+        if (isFresh(entry, now)) {
+            hits.increment();
+            return entry.value;
+        }
+
+        misses.increment();
+        long loadedAt = generation.get();
+        V value = loader.get();
+        if (loadedAt == generation.get()) {
+            trim(map, now);
+            map.put(key, new Entry<>(value, now + ttlNanos));
+        }
+        return value;
+    }
+
+    private void evictNow(Long id) {
+        generation.incrementAndGet();
+        if (id != null && details.remove(id) != null) {
+            evictions.increment();
+        }
+        evictions.add(pages.size());
+        pages.clear();
+    }
+
+    private void evictOwnerNow(Long ownerId) {
+        generation.incrementAndGet();
+        details.values().removeIf(entry -> {
+            boolean owned = ownerId.equals(entry.value.ownerId());
+            if (owned) {
+                evictions.increment();
+            }
+            return owned;
+        });
+        evictions.add(pages.size());
+        pages.clear();
+    }
+
+    private boolean isFresh(Entry<?> entry, long now) {
+        return entry != null && entry.expiresAt - now > 0;
+    }
+
+    private <K, V> void trim(ConcurrentHashMap<K, Entry<V>> map, long now) {
+        if (map.size() < maxEntries) {
+            return;
+        }
+        map.values().removeIf(entry -> !isFresh(entry, now));
+        if (map.size() >= maxEntries) {
+            evictions.add(map.size());
+            map.clear();
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Lỗi xử lý dữ liệu", e);
+        }
+    }
+
+    private static BigDecimal strip(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros() : null;
+    }
+
+    public record CourtDetail(RawValue body, String etag, Long ownerId) {
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private record ListKey(int page, int size, Sort sort) {
+    }
+
+    private record SearchKey(String name, String address, BigDecimal minPrice, BigDecimal maxPrice,
+            int page, int size) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.badminton.cache;
+
+import com.badminton.entity.Booking;
+import com.badminton.entity.Court;
+import com.badminton.repository.BookingRepository;
+import com.badminton.repository.projection.BookingTimeRange;
+import com.badminton.transaction.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory occupancy bitmap per (court, date, courtNumber), one bit per
+ * 15-minute unit of the court's open window. Answers conflict checks without
+ * touching the database; anything it cannot decide exactly is reported as
+ * {@link Answer#UNKNOWN} so the caller falls back to the DB query.
+ */
+@Component
+public class OccupancyIndex {
+
+    public static final int UNIT_MINUTES = 15;
+
+    public enum Answer {
+        FREE, OCCUPIED, UNKNOWN
+    }
+
+    private final BookingRepository bookingRepository;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Key, DayBitmap> entries = new ConcurrentHashMap<>();
+
+    public OccupancyIndex(BookingRepository bookingRepository,
+            @Value("${booking.occupancy.max-entries:50000}") int maxEntries) {
+        this.bookingRepository = bookingRepository;
+        this.maxEntries = maxEntries;
+    }
+
+    public Answer check(Court court, LocalDate date, Integer courtNumber,
+            LocalTime startTime, LocalTime endTime) {
+        int openMinute = toMinute(LocalTime.parse(court.getOpenTime()));
+        int closeMinute = toMinute(LocalTime.parse(court.getCloseTime()));
+        Key key = new Key(court.getId(), date, courtNumber);
+
+        DayBitmap bitmap = entries.get(key);
+        if (bitmap == null || !bitmap.matches(openMinute, closeMinute)) {
+            bitmap = load(key, openMinute, closeMinute);
+        }
+
+        int start = toMinute(startTime);
+        int end = toMinute(endTime);
+        int fromUnit = bitmap.floorUnit(start);
+        int toUnit = bitmap.ceilUnit(end);
+        if (fromUnit >= toUnit) {
+            return Answer.UNKNOWN;
+        }
+
+        if (!bitmap.anySet(fromUnit, toUnit)) {
+            return Answer.FREE;
+        }
+
+        // A set bit only proves an overlap when the request covers whole units
+        return bitmap.isAligned(start) && bitmap.isAligned(end) ? Answer.OCCUPIED : Answer.UNKNOWN;
+    }
+
+    public void occupy(Booking booking) {
+        Key key = keyOf(booking);
+        int start = toMinute(booking.getStartTime());
+        int end = toMinute(booking.getEndTime());
+        AfterCommit.run(() -> entries.computeIfPresent(key, (k, bitmap) -> bitmap.withRange(start, end, true)));
+    }
+
+    public void release(Booking booking) {
+        Key key = keyOf(booking);
+        int start = toMinute(booking.getStartTime());
+        int end = toMinute(booking.getEndTime());
+        AfterCommit.run(() -> entries.computeIfPresent(key, (k, bitmap) -> {
+            // Partial units may be shared with a neighbouring booking, so reload instead
+            if (!bitmap.isAligned(start) || !bitmap.isAligned(end)) {
+                return null;
+            }
+            return bitmap.withRange(start, end, false);
+        }));
+    }
+
+    public void evictCourt(Long courtId) {
+        AfterCommit.run(() -> entries.keySet().removeIf(key -> key.courtId().equals(courtId)));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private DayBitmap load(Key key, int openMinute, int closeMinute) {
+        if (entries.size() >= maxEntries) {
+            trim();
+        }
+
+        // Query outside compute(): a map bin lock held over JDBC would pin a virtual thread.
+        // Loads, occupy and release of one key all run under that slot's BookingSlotLocks stripe.
+        DayBitmap bitmap = DayBitmap.empty(openMinute, closeMinute);
+        List<BookingTimeRange> ranges = bookingRepository.findActiveTimeRanges(
+                key.courtId(), key.date(), key.courtNumber());
+        for (BookingTimeRange range : ranges) {
+            bitmap = bitmap.withRange(toMinute(range.getStartTime()), toMinute(range.getEndTime()), true);
+        }
+        DayBitmap loaded = bitmap;
+        return entries.compute(key, (k, existing) ->
+                existing != null && existing.matches(openMinute, closeMinute) ? existing : loaded);
+    }
+
+    private void trim() {
+        LocalDate today = LocalDate.now();
+        entries.keySet().removeIf(key -> key.date().isBefore(today));
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    private static Key keyOf(Booking booking) {
+        return new Key(booking.getCourt().getId(), booking.getBookingDate(), booking.getCourtNumber());
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private record Key(Long courtId, LocalDate date, Integer courtNumber) {
+    }
+
+    /**
+     * Immutable bitmap; updates copy the (at most two) words so readers never lock.
+     */
+    static final class DayBitmap {
+
+        private final int openMinute;
+        private final int closeMinute;
+        private final long[] words;
+
+        private DayBitmap(int openMinute, int closeMinute, long[] words) {
+            this.openMinute = openMinute;
+            this.closeMinute = closeMinute;
+            this.words = words;
+        }
+
+        static DayBitmap empty(int openMinute, int closeMinute) {
+            int units = Math.max(0, (closeMinute - openMinute + UNIT_MINUTES - 1) / UNIT_MINUTES);
+            return new DayBitmap(openMinute, closeMinute, new long[(units + 63) / 64]);
+        }
+
+        boolean matches(int openMinute, int closeMinute) {
+            return this.openMinute == openMinute && this.closeMinute == closeMinute;
+        }
+
+        int units() {
+            return Math.max(0, (closeMinute - openMinute + UNIT_MINUTES - 1) / UNIT_MINUTES);
+        }
+
+        int floorUnit(int minute) {
+            return clamp(Math.floorDiv(minute - openMinute, UNIT_MINUTES));
+        }
+
+        int ceilUnit(int minute) {
+            return clamp(Math.floorDiv(minute - openMinute + UNIT_MINUTES - 1, UNIT_MINUTES));
+        }
+
+        boolean isAligned(int minute) {
+            return Math.floorMod(minute - openMinute, UNIT_MINUTES) == 0;
+        }
+
+        boolean isSet(int unit) {
+            return (words[unit >>> 6] & (1L << unit)) != 0;
+        }
+
+        boolean anySet(int fromUnit, int toUnit) {
+            for (int unit = fromUnit; unit < toUnit; unit++) {
+                if (isSet(unit)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        DayBitmap withRange(int startMinute, int endMinute, boolean value) {
+            int fromUnit = floorUnit(startMinute);
+            int toUnit = ceilUnit(endMinute);
+            if (fromUnit >= toUnit) {
+                return this;
+            }
+            long[] copy = words.clone();
+            for (int unit = fromUnit; unit < toUnit; unit++) {
+                if (value) {
+                    copy[unit >>> 6] |= 1L << unit;
+                } else {
+                    copy[unit >>> 6] &= ~(1L << unit);
+                }
+            }
+            return new DayBitmap(openMinute, closeMinute, copy);
+        }
+
+        private int clamp(int unit) {
+            return Math.max(0, Math.min(unit, units()));
+        }
+    }
+}
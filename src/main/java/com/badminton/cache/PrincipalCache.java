@@ -0,0 +1,66 @@
+package com.badminton.cache;
+
+import com.badminton.security.UserPrincipal;
+import com.badminton.transaction.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by email, so a
+ * request carrying a valid JWT resolves identity without touching the user table.
+ * Entries are dropped explicitly whenever the user row changes.
+ */
+@Component
+public class PrincipalCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public PrincipalCache(
+            @Value("${security.principal-cache.max-size:10000}") int maxSize,
+            @Value("${security.principal-cache.ttl:5m}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public UserPrincipal get(String email, Function<String, UserPrincipal> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt - now > 0) {
+            return entry.principal;
+        }
+
+        UserPrincipal principal = loader.apply(email).withoutPassword();
+        if (entries.size() >= maxSize) {
+            evictExpired(now);
+        }
+        entries.put(email, new Entry(principal, now + ttlNanos));
+        return principal;
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        AfterCommit.runNowAndAfterCommit(() -> entries.remove(email));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+    }
+
+    private record Entry(UserPrincipal principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.badminton.config;
+
+import com.badminton.entity.IdGenerators;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.util.Map;
+
+/**
+ * Moves pooled id generators past ids that MySQL AUTO_INCREMENT handed out
+ * before an entity switched to a sequence. Hibernate emulates sequences on
+ * MySQL with a one-row table (next_val); it is raised to at least the table's
+ * MAX(id) plus one allocation, so the first pool never reuses an existing id.
+ * Runs before the web server starts and is idempotent across nodes.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceAligner implements InitializingBean {
+
+    // Sequence table -> entity table whose ids it must stay ahead of
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "user_seq", "users",
+            "court_seq", "courts",
+            "booking_seq", "bookings",
+            "payment_seq", "payments",
+            "time_slot_seq", "time_slots");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate,
+            @Value("${app.id-sequence.align-on-startup:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled || !isMySql()) {
+            // Native sequences (H2 tests) start on an empty schema
+            return;
+        }
+        SEQUENCES.forEach(this::align);
+    }
+
+    private void align(String sequence, String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long floor = (maxId != null ? maxId : 0) + IdGenerators.ALLOCATION_SIZE + 1;
+
+        jdbcTemplate.update("INSERT INTO " + sequence + " (next_val) SELECT ? FROM DUAL "
+                + "WHERE NOT EXISTS (SELECT 1 FROM " + sequence + ")", floor);
+        jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", floor, floor);
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("mysql");
+    }
+}
@@ -0,0 +1,33 @@
+package com.badminton.config;
+
+import com.badminton.metrics.TracingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class SqlTraceConfig {
+
+    // Static: post-processors are created before regular beans
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(Environment environment) {
+        Duration slowQueryThreshold = environment.getProperty("sql.trace.slow-query-threshold", Duration.class,
+                Duration.ofMillis(200));
+        double bindSampleRate = environment.getProperty("sql.trace.slow-query-bind-sample-rate", Double.class,
+                0.0);
+        boolean bindValues = environment.getProperty("sql.trace.slow-query-bind-values", Boolean.class, false);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource, slowQueryThreshold, bindSampleRate, bindValues);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -6,8 +6,7 @@ import com.badminton.dto.request.UpdateProfileRequest;
 import com.badminton.dto.response.ApiResponse;
 import com.badminton.dto.response.AuthResponse;
 import com.badminton.dto.response.UserResponse;
-import com.badminton.entity.User;
-import com.badminton.repository.UserRepository;
+import com.badminton.security.UserPrincipal;
 import com.badminton.service.AuthService;
 import com.badminton.service.UserService;
 import jakarta.validation.Valid;
@@ -23,7 +22,6 @@ public class AuthController {
 
     private final AuthService authService;
     private final UserService userService;
-    private final UserRepository userRepository;
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<AuthResponse>> register(
@@ -41,9 +39,7 @@ public class AuthController {
 
     @GetMapping("/profile")
     public ResponseEntity<ApiResponse<UserResponse>> getProfile(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy người dùng"));
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
 
         UserResponse response = userService.getUserById(user.getId());
         return ResponseEntity.ok(ApiResponse.success(response, "Lấy thông tin thành công"));
@@ -53,9 +49,7 @@ public class AuthController {
     public ResponseEntity<ApiResponse<UserResponse>> updateProfile(
             @Valid @RequestBody UpdateProfileRequest request,
             Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy người dùng"));
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
 
         UserResponse response = userService.updateProfile(user.getId(), request);
         return ResponseEntity.ok(ApiResponse.success(response, "Cập nhật thông tin thành công"));
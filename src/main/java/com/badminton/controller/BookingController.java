@@ -1,22 +1,34 @@
 package com.badminton.controller;
 
+import com.badminton.dto.ExportFormat;
+import com.badminton.dto.request.BatchBookingRequest;
 import com.badminton.dto.request.BookingRequest;
+import com.badminton.dto.request.RecurringBookingRequest;
 import com.badminton.dto.response.ApiResponse;
+import com.badminton.dto.response.BatchBookingResponse;
 import com.badminton.dto.response.BookingResponse;
-import com.badminton.entity.User;
-import com.badminton.repository.UserRepository;
+import com.badminton.dto.response.CursorPage;
+import com.badminton.exception.BadRequestException;
+import com.badminton.security.UserPrincipal;
 import com.badminton.service.BookingService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -25,24 +37,43 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
-    private final UserRepository userRepository;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('USER', 'OWNER', 'ADMIN')")
     public ResponseEntity<ApiResponse<BookingResponse>> createBooking(
             @Valid @RequestBody BookingRequest request,
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         BookingResponse booking = bookingService.createBooking(request, user.getId());
         return ResponseEntity.ok(ApiResponse.success(booking, "Đặt sân thành công"));
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('USER', 'OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<BatchBookingResponse>> createBookings(
+            @Valid @RequestBody BatchBookingRequest request,
+            Authentication authentication) {
+        UserPrincipal user = getUserFromAuth(authentication);
+        BatchBookingResponse result = bookingService.createBookings(request.getBookings(), user.getId());
+        return ResponseEntity.ok(ApiResponse.success(result, batchMessage(result)));
+    }
+
+    @PostMapping("/batch/recurring")
+    @PreAuthorize("hasAnyRole('USER', 'OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<BatchBookingResponse>> createRecurringBookings(
+            @Valid @RequestBody RecurringBookingRequest request,
+            Authentication authentication) {
+        UserPrincipal user = getUserFromAuth(authentication);
+        BatchBookingResponse result = bookingService.createRecurringBookings(request, user.getId());
+        return ResponseEntity.ok(ApiResponse.success(result, batchMessage(result)));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'OWNER', 'ADMIN')")
     public ResponseEntity<ApiResponse<BookingResponse>> getBookingById(
             @PathVariable Long id,
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         BookingResponse booking = bookingService.getBookingById(id, user.getId());
         return ResponseEntity.ok(ApiResponse.success(booking));
     }
@@ -52,10 +83,38 @@ public class BookingController {
     public ResponseEntity<ApiResponse<Page<BookingResponse>>> getMyBookings(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+            Authentication authentication,
+            WebRequest webRequest) {
+        UserPrincipal user = getUserFromAuth(authentication);
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        String etag = bookingService.getUserBookingsVersion(user.getId(), pageable);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         Page<BookingResponse> bookings = bookingService.getUserBookings(user.getId(), pageable);
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(bookings));
+    }
+
+    // Cursor variants: no total count, stable cost on deep pages
+    @GetMapping("/my-bookings/cursor")
+    @PreAuthorize("hasAnyRole('USER', 'OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPage<BookingResponse>>> getMyBookingsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        UserPrincipal user = getUserFromAuth(authentication);
+        CursorPage<BookingResponse> bookings = bookingService.getUserBookings(user.getId(), cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(bookings));
+    }
+
+    @GetMapping("/owner-bookings/cursor")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPage<BookingResponse>>> getOwnerBookingsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        UserPrincipal user = getUserFromAuth(authentication);
+        CursorPage<BookingResponse> bookings = bookingService.getOwnerBookings(user.getId(), cursor, size);
         return ResponseEntity.ok(ApiResponse.success(bookings));
     }
 
@@ -65,7 +124,7 @@ public class BookingController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<BookingResponse> bookings = bookingService.getOwnerBookings(user.getId(), pageable);
         return ResponseEntity.ok(ApiResponse.success(bookings));
@@ -76,18 +135,42 @@ public class BookingController {
     public ResponseEntity<ApiResponse<List<BookingResponse>>> getCourtBookings(
             @PathVariable Long courtId,
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         List<BookingResponse> bookings = bookingService.getCourtBookings(courtId, user.getId());
         return ResponseEntity.ok(ApiResponse.success(bookings));
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
+    public void exportCourtBookings(
+            @RequestParam Long courtId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        UserPrincipal user = getUserFromAuth(authentication);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("Ngày bắt đầu phải trước ngày kết thúc");
+        }
+        // Errors can only be reported as JSON until the first byte is written
+        bookingService.checkCourtAccess(courtId, user.getId());
+
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("bookings-court-" + courtId + "." + exportFormat.getExtension())
+                .build().toString());
+        bookingService.exportCourtBookings(courtId, from, to, exportFormat, response.getOutputStream());
+    }
+
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
     public ResponseEntity<ApiResponse<BookingResponse>> updateBookingStatus(
             @PathVariable Long id,
             @RequestParam String status,
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         BookingResponse booking = bookingService.updateBookingStatus(id, status, user.getId());
         return ResponseEntity.ok(ApiResponse.success(booking, "Cập nhật trạng thái thành công"));
     }
@@ -97,15 +180,18 @@ public class BookingController {
     public ResponseEntity<ApiResponse<Void>> cancelBooking(
             @PathVariable Long id,
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         bookingService.cancelBooking(id, user.getId());
         return ResponseEntity.ok(ApiResponse.success(null, "Hủy đặt sân thành công"));
     }
 
-    private User getUserFromAuth(Authentication authentication) {
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy người dùng"));
+    private UserPrincipal getUserFromAuth(Authentication authentication) {
+        return (UserPrincipal) authentication.getPrincipal();
+    }
+
+    private String batchMessage(BatchBookingResponse result) {
+        return "Đặt sân thành công " + result.getCreatedCount() + "/"
+                + (result.getCreatedCount() + result.getRejectedCount()) + " lượt";
     }
 
     // ✅ THÊM endpoint mới cho ADMIN
@@ -119,4 +205,13 @@ public class BookingController {
         return ResponseEntity.ok(ApiResponse.success(bookings));
     }
 
+    @GetMapping("/all/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPage<BookingResponse>>> getAllBookingsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPage<BookingResponse> bookings = bookingService.getAllBookings(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(bookings));
+    }
+
 }
@@ -1,23 +1,29 @@
 package com.badminton.controller;
 
+import com.badminton.cache.CourtQueryCache;
 import com.badminton.dto.request.CourtRequest;
 import com.badminton.dto.response.ApiResponse;
+import com.badminton.dto.response.AvailabilityResponse;
 import com.badminton.dto.response.CourtResponse;
-import com.badminton.entity.User;
-import com.badminton.repository.UserRepository;
+import com.badminton.dto.response.CursorPage;
+import com.badminton.security.UserPrincipal;
 import com.badminton.service.CourtService;
+import com.fasterxml.jackson.databind.util.RawValue;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @RestController
@@ -26,11 +32,10 @@ import java.util.List;
 public class CourtController {
 
     private final CourtService courtService;
-    private final UserRepository userRepository;
 
     // Public endpoints
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<CourtResponse>>> getAllCourts(
+    public ResponseEntity<ApiResponse<RawValue>> getAllCourts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -41,18 +46,38 @@ public class CourtController {
                 : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<CourtResponse> courts = courtService.getAllCourts(pageable);
+        RawValue courts = courtService.getAllCourts(pageable);
+        return ResponseEntity.ok(ApiResponse.success(courts));
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<CourtResponse>>> getAllCourtsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        CursorPage<CourtResponse> courts = courtService.getAllCourts(cursor, size);
         return ResponseEntity.ok(ApiResponse.success(courts));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<CourtResponse>> getCourtById(@PathVariable Long id) {
-        CourtResponse court = courtService.getCourtById(id);
-        return ResponseEntity.ok(ApiResponse.success(court));
+    public ResponseEntity<ApiResponse<RawValue>> getCourtById(@PathVariable Long id, WebRequest webRequest) {
+        CourtQueryCache.CourtDetail court = courtService.getCourtById(id);
+        if (webRequest.checkNotModified(court.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(court.etag()).body(ApiResponse.success(court.body()));
+    }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<ApiResponse<AvailabilityResponse>> getCourtAvailability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AvailabilityResponse availability = courtService.getCourtAvailability(id, from, to);
+        return ResponseEntity.ok(ApiResponse.success(availability));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<Page<CourtResponse>>> searchCourts(
+    public ResponseEntity<ApiResponse<RawValue>> searchCourts(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String address,
             @RequestParam(required = false) BigDecimal minPrice,
@@ -61,7 +86,19 @@ public class CourtController {
             @RequestParam(defaultValue = "10") int size) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<CourtResponse> courts = courtService.searchCourts(name, address, minPrice, maxPrice, pageable);
+        RawValue courts = courtService.searchCourts(name, address, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(ApiResponse.success(courts));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<ApiResponse<List<CourtResponse>>> getNearbyCourts(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime available,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<CourtResponse> courts = courtService.getNearbyCourts(lat, lng, radiusKm, date, available, limit);
         return ResponseEntity.ok(ApiResponse.success(courts));
     }
 
@@ -71,7 +108,7 @@ public class CourtController {
     public ResponseEntity<ApiResponse<CourtResponse>> createCourt(
             @Valid @RequestBody CourtRequest request,
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         CourtResponse court = courtService.createCourt(request, user.getId());
         return ResponseEntity.ok(ApiResponse.success(court, "Tạo sân thành công"));
     }
@@ -82,7 +119,7 @@ public class CourtController {
             @PathVariable Long id,
             @Valid @RequestBody CourtRequest request,
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         CourtResponse court = courtService.updateCourt(id, request, user.getId());
         return ResponseEntity.ok(ApiResponse.success(court, "Cập nhật sân thành công"));
     }
@@ -92,7 +129,7 @@ public class CourtController {
     public ResponseEntity<ApiResponse<Void>> deleteCourt(
             @PathVariable Long id,
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         courtService.deleteCourt(id, user.getId());
         return ResponseEntity.ok(ApiResponse.success(null, "Xóa sân thành công"));
     }
@@ -103,7 +140,7 @@ public class CourtController {
             @PathVariable Long id,
             @RequestParam String status,
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         courtService.updateCourtStatus(id, status, user.getId());
         return ResponseEntity.ok(ApiResponse.success(null, "Cập nhật trạng thái thành công"));
     }
@@ -112,14 +149,12 @@ public class CourtController {
     @PreAuthorize("hasAnyRole('OWNER', 'ADMIN')")
     public ResponseEntity<ApiResponse<List<CourtResponse>>> getMyCourts(
             Authentication authentication) {
-        User user = getUserFromAuth(authentication);
+        UserPrincipal user = getUserFromAuth(authentication);
         List<CourtResponse> courts = courtService.getCourtsByOwner(user.getId());
         return ResponseEntity.ok(ApiResponse.success(courts));
     }
 
-    private User getUserFromAuth(Authentication authentication) {
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy người dùng"));
+    private UserPrincipal getUserFromAuth(Authentication authentication) {
+        return (UserPrincipal) authentication.getPrincipal();
     }
 }
@@ -0,0 +1,19 @@
+package com.badminton.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookingRequest {
+
+    @NotEmpty(message = "Danh sách đặt sân không được để trống")
+    @Valid
+    private List<BookingRequest> bookings;
+}
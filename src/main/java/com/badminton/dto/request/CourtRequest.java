@@ -30,6 +30,15 @@ public class CourtRequest {
     @Min(value = 1, message = "Số lượng sân phải ít nhất là 1")
     private Integer numberOfCourts;
 
+    // Tọa độ sân, không bắt buộc; sân không có tọa độ sẽ không xuất hiện trong tìm sân gần
+    @DecimalMin(value = "-90.0", message = "Vĩ độ không hợp lệ")
+    @DecimalMax(value = "90.0", message = "Vĩ độ không hợp lệ")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Kinh độ không hợp lệ")
+    @DecimalMax(value = "180.0", message = "Kinh độ không hợp lệ")
+    private Double longitude;
+
     private List<String> facilities;
 
     private List<String> images;
@@ -0,0 +1,34 @@
+package com.badminton.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponse {
+    private Long courtId;
+    private String openTime;
+    private String closeTime;
+    private Integer slotMinutes;
+    private Integer numberOfCourts;
+    private List<DayAvailability> days;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayAvailability {
+        private LocalDate date;
+        // Mỗi phần tử là một sân con, mỗi ký tự là một ô slotMinutes phút: 0 = trống, 1 = đã đặt, 2 = bị khóa
+        private List<String> courts;
+    }
+}
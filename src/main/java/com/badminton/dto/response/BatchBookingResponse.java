@@ -0,0 +1,38 @@
+package com.badminton.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchBookingResponse {
+    private Integer createdCount;
+    private Integer rejectedCount;
+    private List<OccurrenceResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class OccurrenceResult {
+        // Vị trí trong danh sách gửi lên (hoặc thứ tự lần lặp)
+        private Integer index;
+        private LocalDate bookingDate;
+        private Integer courtNumber;
+        private String startTime;
+        private String endTime;
+        private Boolean created;
+        private String message;
+        private BookingResponse booking;
+    }
+}
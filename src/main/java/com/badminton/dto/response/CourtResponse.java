@@ -22,6 +22,9 @@ public class CourtResponse {
     private String description;
     private BigDecimal pricePerHour;
     private Integer numberOfCourts;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm; // Chỉ có ở kết quả tìm sân gần
     private List<String> facilities;
     private List<String> images;
     private String openTime;
@@ -13,14 +13,21 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "bookings")
+// Conflict checks and per-court reads seek on the slot index; listings walk the created_at ones
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_court_slot",
+                columnList = "court_id, booking_date, court_number, status, start_time"),
+        @Index(name = "idx_bookings_user_created", columnList = "user_id, created_at DESC, id DESC"),
+        @Index(name = "idx_bookings_created", columnList = "created_at DESC, id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,43 @@
+package com.badminton.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * One narrow row per (court, date, court number). Booking writes upsert it, which
+ * locks it exclusively, so the conflict check and insert are serialized across nodes.
+ */
+@Entity
+@Table(name = "booking_slot_locks")
+@IdClass(BookingSlotLock.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSlotLock {
+
+    @Id
+    @Column(name = "court_id")
+    private Long courtId;
+
+    @Id
+    @Column(name = "booking_date")
+    private LocalDate bookingDate;
+
+    @Id
+    @Column(name = "court_number")
+    private Integer courtNumber;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long courtId;
+        private LocalDate bookingDate;
+        private Integer courtNumber;
+    }
+}
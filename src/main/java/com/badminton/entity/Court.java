@@ -1,5 +1,6 @@
 package com.badminton.entity;
 
+import com.badminton.entity.converter.StringListJsonConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,14 +13,17 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "courts")
+@Table(name = "courts", indexes = {
+        @Index(name = "idx_courts_status_created", columnList = "status, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Court {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "court_seq")
+    @SequenceGenerator(name = "court_seq", sequenceName = "court_seq", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -37,11 +41,17 @@ public class Court {
     @Column(nullable = false)
     private Integer numberOfCourts;
 
+    @Convert(converter = StringListJsonConverter.class)
     @Column(columnDefinition = "TEXT")
-    private String facilities; // Lưu dạng JSON string: ["Parking", "Shower", "Locker"]
+    private List<String> facilities; // Lưu dạng JSON string: ["Parking", "Shower", "Locker"]
 
+    @Convert(converter = StringListJsonConverter.class)
     @Column(columnDefinition = "TEXT")
-    private String images; // Lưu dạng JSON string: ["url1", "url2"]
+    private List<String> images; // Lưu dạng JSON string: ["url1", "url2"]
+
+    private Double latitude;
+
+    private Double longitude;
 
     @Column(nullable = false)
     private String openTime; // Format: "06:00"
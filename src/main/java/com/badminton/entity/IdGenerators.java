@@ -0,0 +1,14 @@
+package com.badminton.entity;
+
+/**
+ * Shared settings of the pooled id generators. Each entity gets its own
+ * sequence (a one-row table on MySQL); Hibernate reserves ALLOCATION_SIZE ids
+ * per round trip, which is what allows JDBC insert batching.
+ */
+public final class IdGenerators {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
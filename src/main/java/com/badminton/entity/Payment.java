@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
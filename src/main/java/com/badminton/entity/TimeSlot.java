@@ -9,14 +9,17 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "time_slots")
+@Table(name = "time_slots", indexes = {
+        @Index(name = "idx_time_slots_court_date_status", columnList = "court_id, date, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class TimeSlot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "time_slot_seq")
+    @SequenceGenerator(name = "time_slot_seq", sequenceName = "time_slot_seq", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
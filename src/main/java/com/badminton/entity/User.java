@@ -18,7 +18,8 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -40,6 +41,10 @@ public class User {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Tăng lên để thu hồi mọi JWT đã cấp (đổi role, khóa tài khoản...)
+    @Column(nullable = false)
+    private Integer tokenVersion = 0;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
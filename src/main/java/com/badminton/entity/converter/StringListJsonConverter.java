@@ -0,0 +1,50 @@
+package com.badminton.entity.converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lưu List<String> dưới dạng JSON string: ["Parking", "Shower", "Locker"].
+ * Giá trị được decode một lần khi nạp entity; list trả về là bất biến nên
+ * Hibernate không phải encode lại để so sánh dirty check.
+ */
+@Converter
+@Immutable
+public class StringListJsonConverter implements AttributeConverter<List<String>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(List<String> attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(attribute);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Lỗi xử lý dữ liệu", e);
+        }
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isBlank()) {
+            return null;
+        }
+        try {
+            // Not List.copyOf: stored lists may contain null elements
+            return Collections.unmodifiableList(MAPPER.readValue(dbData, STRING_LIST));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Lỗi xử lý dữ liệu", e);
+        }
+    }
+}
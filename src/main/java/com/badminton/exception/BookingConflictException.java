@@ -0,0 +1,10 @@
+package com.badminton.exception;
+
+/**
+ * The requested slot overlaps an existing booking. Still a 400 for clients.
+ */
+public class BookingConflictException extends BadRequestException {
+    public BookingConflictException() {
+        super("Sân đã được đặt trong khung giờ này");
+    }
+}
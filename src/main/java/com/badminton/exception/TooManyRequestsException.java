@@ -0,0 +1,10 @@
+package com.badminton.exception;
+
+/**
+ * The server is shedding load for this kind of request; clients should retry shortly. Mapped to 429.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
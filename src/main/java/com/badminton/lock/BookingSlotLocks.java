@@ -0,0 +1,119 @@
+package com.badminton.lock;
+
+import com.badminton.repository.BookingSlotLockRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes booking writes per (court, date, court number) so the conflict
+ * check and the insert happen atomically. A fixed set of striped locks covers
+ * one JVM; with {@code booking.slot-lock.database=true} the slot's row in
+ * booking_slot_locks is also upserted and so exclusively locked, which holds across nodes.
+ * <p>
+ * Locks are held until the surrounding transaction completes, i.e. after the
+ * new booking is committed and visible to the next writer. Callers must run at
+ * READ COMMITTED so their reads after the lock see that booking.
+ */
+@Component
+public class BookingSlotLocks {
+
+    private static final Comparator<Slot> SLOT_ORDER = Comparator.comparing(Slot::courtId)
+            .thenComparing(Slot::date)
+            .thenComparing(Slot::courtNumber);
+
+    private final BookingSlotLockRepository slotLockRepository;
+    private final ReentrantLock[] stripes;
+    private final long timeoutNanos;
+    private final boolean database;
+
+    public BookingSlotLocks(BookingSlotLockRepository slotLockRepository,
+            @Value("${booking.slot-lock.stripes:256}") int stripes,
+            @Value("${booking.slot-lock.timeout:5s}") Duration timeout,
+            @Value("${booking.slot-lock.database:false}") boolean database) {
+        this.slotLockRepository = slotLockRepository;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = timeout.toNanos();
+        this.database = database;
+    }
+
+    /**
+     * Locks the slot until the current transaction commits or rolls back.
+     */
+    public void lock(Long courtId, LocalDate date, Integer courtNumber) {
+        lockAll(List.of(new Slot(courtId, date, courtNumber)));
+    }
+
+    /**
+     * Locks several slots at once. Stripes are taken in index order and rows in
+     * key order, so two batches with overlapping slots cannot deadlock each other.
+     */
+    public void lockAll(Collection<Slot> slots) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Slot locks require an active transaction");
+        }
+
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Slot slot : slots) {
+            indexes.add(stripeIndex(slot));
+        }
+        for (int index : indexes) {
+            ReentrantLock stripe = stripes[index];
+            acquire(stripe);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    stripe.unlock();
+                }
+            });
+        }
+
+        if (database) {
+            slots.stream().distinct().sorted(SLOT_ORDER).forEach(this::lockRow);
+        }
+    }
+
+    /**
+     * True when other nodes may write bookings, so in-memory state is not authoritative.
+     */
+    public boolean isDistributed() {
+        return database;
+    }
+
+    private void acquire(ReentrantLock stripe) {
+        try {
+            if (stripe.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new CannotAcquireLockException("Sân đang được đặt, vui lòng thử lại");
+    }
+
+    private void lockRow(Slot slot) {
+        slotLockRepository.lock(slot.courtId(), slot.date(), slot.courtNumber());
+    }
+
+    private int stripeIndex(Slot slot) {
+        int hash = slot.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+    public record Slot(Long courtId, LocalDate date, Integer courtNumber) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.badminton.metrics;
+
+import com.badminton.exception.BadRequestException;
+import com.badminton.exception.BookingConflictException;
+import com.badminton.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the booking write path: createBooking latency up to commit, the
+ * conflict check on its own (by what decided it), conflicts and rejections.
+ */
+@Component
+public class BookingMetrics {
+
+    private final MeterRegistry registry;
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times a createBooking call; must run inside its transaction so the commit is included.
+     */
+    public <T> T recordCreate(Supplier<T> action) {
+        Timer.Sample sample = Timer.start(registry);
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            rejected("create", reasonOf(e));
+            sample.stop(createTimer("rejected"));
+            throw e;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sample.stop(createTimer("created"));
+            return result;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(createTimer(status == STATUS_COMMITTED ? "created" : "rolled_back"));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @param decidedBy "index", "database" or "batch"
+     */
+    public void recordConflictCheck(String decidedBy, long startNanos) {
+        Timer.builder("booking.conflict.check")
+                .description("Slot conflict check, by what decided the answer")
+                .tag("decided_by", decidedBy)
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param operation "create", "batch" or "restore"
+     */
+    public void conflict(String operation) {
+        registry.counter("booking.conflicts", "operation", operation).increment();
+    }
+
+    public void rejected(String operation, String reason) {
+        registry.counter("booking.rejections", "operation", operation, "reason", reason).increment();
+    }
+
+    public static String reasonOf(RuntimeException e) {
+        if (e instanceof BookingConflictException) {
+            return "conflict";
+        }
+        if (e instanceof BadRequestException) {
+            return "invalid";
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof PessimisticLockingFailureException) {
+            return "lock_timeout";
+        }
+        return "error";
+    }
+
+    private Timer createTimer(String outcome) {
+        return Timer.builder("booking.create")
+                .description("BookingService.createBooking including commit")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
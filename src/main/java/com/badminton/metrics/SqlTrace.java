@@ -0,0 +1,67 @@
+package com.badminton.metrics;
+
+import java.util.Locale;
+
+/**
+ * JDBC totals of the current HTTP request: statements executed, rows read or
+ * written and time spent inside the driver. Bound to the request thread by
+ * {@link SqlTraceFilter} and fed by {@link TracingDataSource}.
+ */
+public final class SqlTrace {
+
+    private static final ThreadLocal<SqlTrace> CURRENT = new ThreadLocal<>();
+
+    private final int statementBudget;
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+
+    private SqlTrace(int statementBudget) {
+        this.statementBudget = statementBudget;
+    }
+
+    public static SqlTrace current() {
+        return CURRENT.get();
+    }
+
+    static SqlTrace begin(int statementBudget) {
+        SqlTrace trace = new SqlTrace(statementBudget);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void statement(long nanos, long rowCount) {
+        statements++;
+        jdbcNanos += nanos;
+        rows += rowCount;
+    }
+
+    void rows(long count) {
+        rows += count;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public double getJdbcMillis() {
+        return jdbcNanos / 1_000_000.0;
+    }
+
+    public boolean isOverBudget() {
+        return statements > statementBudget;
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT, "statements=%d;rows=%d;jdbc-ms=%.1f%s", statements, rows,
+                getJdbcMillis(), isOverBudget() ? ";over-budget" : "");
+    }
+}
@@ -0,0 +1,49 @@
+package com.badminton.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link SqlTrace} for every request, ahead of security so the
+ * authentication lookups are counted, and logs the totals when it ends.
+ * Requests above the statement budget are logged as warnings.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlTraceFilter extends OncePerRequestFilter {
+
+    private final int statementBudget;
+
+    public SqlTraceFilter(@Value("${sql.trace.statement-budget:20}") int statementBudget) {
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        SqlTrace trace = SqlTrace.begin(statementBudget);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlTrace.end();
+            if (trace.isOverBudget()) {
+                logger.warn(String.format("%s %s over SQL budget of %d statements: %s", request.getMethod(),
+                        request.getRequestURI(), statementBudget, trace.summary()));
+            } else if (logger.isDebugEnabled() && trace.getStatements() > 0) {
+                logger.debug(request.getMethod() + " " + request.getRequestURI() + " " + trace.summary());
+            }
+        }
+    }
+}
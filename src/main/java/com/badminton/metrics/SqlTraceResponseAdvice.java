@@ -0,0 +1,45 @@
+package com.badminton.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the request's SQL totals as a response header, e.g.
+ * {@code X-SQL-Trace: statements=3;rows=12;jdbc-ms=1.8}, suffixed with
+ * ";over-budget" past the statement budget. Written just before the body,
+ * the last point where headers can still change; streamed responses
+ * (exports) only get the log line.
+ */
+@ControllerAdvice
+public class SqlTraceResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-SQL-Trace";
+
+    private final boolean enabled;
+
+    public SqlTraceResponseAdvice(@Value("${sql.trace.response-header:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request, ServerHttpResponse response) {
+        SqlTrace trace = SqlTrace.current();
+        if (trace != null) {
+            response.getHeaders().set(HEADER, trace.summary());
+        }
+        return body;
+    }
+}
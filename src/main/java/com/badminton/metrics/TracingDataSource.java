@@ -0,0 +1,222 @@
+package com.badminton.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Wraps the pool so every statement is counted and timed into the request's
+ * {@link SqlTrace}, and statements slower than the threshold are logged.
+ * For a sample of the slow ones the binds are logged too: only each bind's
+ * type and length unless bind values are switched on, since binds carry
+ * password hashes, emails and phone numbers.
+ */
+@Slf4j
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final int MAX_BIND_LENGTH = 64;
+
+    private final long slowQueryNanos;
+    private final double bindSampleRate;
+    private final boolean bindValues;
+
+    public TracingDataSource(DataSource target, Duration slowQueryThreshold, double bindSampleRate,
+                             boolean bindValues) {
+        super(target);
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+        this.bindSampleRate = bindSampleRate;
+        this.bindValues = bindValues;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+
+    private abstract static class Handler implements InvocationHandler {
+
+        final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && args == null) {
+                return System.identityHashCode(proxy);
+            }
+            return handle(method, args);
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private class ConnectionHandler extends Handler {
+
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, new StatementHandler(result, null));
+                case "prepareStatement" -> proxy(PreparedStatement.class, new StatementHandler(result, sql));
+                case "prepareCall" -> proxy(CallableStatement.class, new StatementHandler(result, sql));
+                default -> result;
+            };
+        }
+    }
+
+    private class StatementHandler extends Handler {
+
+        private final String preparedSql;
+        private final Map<Integer, Object> binds = new TreeMap<>();
+
+        StatementHandler(Object target, String preparedSql) {
+            super(target);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (preparedSql != null && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                binds.put(index, args[1]);
+            } else if (name.equals("clearParameters")) {
+                binds.clear();
+            }
+            if (!name.startsWith("execute")) {
+                Object result = call(method, args);
+                return name.equals("getResultSet") && result != null
+                        ? proxy(ResultSet.class, new ResultSetHandler(result))
+                        : result;
+            }
+
+            long start = System.nanoTime();
+            Object result = call(method, args);
+            long elapsed = System.nanoTime() - start;
+
+            SqlTrace trace = SqlTrace.current();
+            if (trace != null) {
+                trace.statement(elapsed, updatedRows(result));
+            }
+            if (elapsed >= slowQueryNanos) {
+                logSlow(elapsed, preparedSql != null ? preparedSql : args != null ? String.valueOf(args[0]) : "?");
+            }
+            return result instanceof ResultSet ? proxy(ResultSet.class, new ResultSetHandler(result)) : result;
+        }
+
+        private long updatedRows(Object result) {
+            if (result instanceof Integer count) {
+                return Math.max(count, 0);
+            }
+            if (result instanceof Long count) {
+                return Math.max(count, 0);
+            }
+            long rows = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+
+        private void logSlow(long elapsed, String sql) {
+            String ms = String.format(Locale.ROOT, "%.1f", elapsed / 1_000_000.0);
+            if (!binds.isEmpty() && ThreadLocalRandom.current().nextDouble() < bindSampleRate) {
+                log.warn("Slow SQL ({} ms): {} binds {}", ms, sql, formatBinds());
+            } else {
+                log.warn("Slow SQL ({} ms): {}", ms, sql);
+            }
+        }
+
+        private String formatBinds() {
+            StringBuilder out = new StringBuilder("[");
+            for (Map.Entry<Integer, Object> bind : binds.entrySet()) {
+                if (out.length() > 1) {
+                    out.append(", ");
+                }
+                out.append(bind.getKey()).append('=').append(formatBind(bind.getValue()));
+            }
+            return out.append(']').toString();
+        }
+
+        private String formatBind(Object value) {
+            if (value == null) {
+                return "null";
+            }
+            if (value instanceof byte[] bytes) {
+                return "byte[" + bytes.length + "]";
+            }
+            if (!bindValues) {
+                String type = value.getClass().getSimpleName();
+                return value instanceof CharSequence text ? type + "(" + text.length() + ")" : type;
+            }
+            String text = String.valueOf(value);
+            return text.length() > MAX_BIND_LENGTH ? text.substring(0, MAX_BIND_LENGTH) + "…" : text;
+        }
+    }
+
+    // Counts rows as they are read, so streamed results are counted too
+    private static class ResultSetHandler extends Handler {
+
+        ResultSetHandler(Object target) {
+            super(target);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                SqlTrace trace = SqlTrace.current();
+                if (trace != null) {
+                    trace.rows(1);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -3,20 +3,48 @@ package com.badminton.repository;
 import com.badminton.entity.Booking;
 import com.badminton.entity.Court;
 import com.badminton.entity.User;
+import com.badminton.repository.projection.BookingSetVersion;
+import com.badminton.repository.projection.BookingSlot;
+import com.badminton.repository.projection.BookingTimeRange;
+import com.badminton.repository.projection.BookingView;
+import com.badminton.repository.projection.BusyCourtNumber;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    String BOOKING_VIEW_SELECT = "SELECT b.id AS id, u.id AS userId, u.fullName AS userName, " +
+            "u.phone AS userPhone, c.id AS courtId, c.name AS courtName, c.address AS courtAddress, " +
+            "b.bookingDate AS bookingDate, b.startTime AS startTime, b.endTime AS endTime, " +
+            "b.courtNumber AS courtNumber, b.totalPrice AS totalPrice, b.status AS status, " +
+            "b.notes AS notes, b.createdAt AS createdAt " +
+            "FROM Booking b JOIN b.user u JOIN b.court c ";
+
+    // Keyset slices on (createdAt, id): no OFFSET and no COUNT, cost is the same on every page.
+    // The leading createdAt <= bound gives the planner a range to seek on the created_at indexes.
+    String KEYSET_AFTER = "b.createdAt <= :createdAt " +
+            "AND (b.createdAt < :createdAt OR b.id < :id) ";
+    String KEYSET_ORDER = "ORDER BY b.createdAt DESC, b.id DESC";
+
     List<Booking> findByUser(User user);
 
     List<Booking> findByCourt(Court court);
@@ -35,6 +63,116 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("startTime") LocalTime startTime,
             @Param("endTime") LocalTime endTime);
 
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.court.id = :courtId " +
+            "AND b.bookingDate = :date " +
+            "AND b.courtNumber = :courtNumber " +
+            "AND b.status != 'CANCELLED' " +
+            "AND ((b.startTime < :endTime AND b.endTime > :startTime))")
+    boolean existsConflictingBooking(
+            @Param("courtId") Long courtId,
+            @Param("date") LocalDate date,
+            @Param("courtNumber") Integer courtNumber,
+            @Param("startTime") LocalTime startTime,
+            @Param("endTime") LocalTime endTime);
+
+    @Query("SELECT b.startTime AS startTime, b.endTime AS endTime FROM Booking b " +
+            "WHERE b.court.id = :courtId " +
+            "AND b.bookingDate = :date " +
+            "AND b.courtNumber = :courtNumber " +
+            "AND b.status != 'CANCELLED'")
+    List<BookingTimeRange> findActiveTimeRanges(
+            @Param("courtId") Long courtId,
+            @Param("date") LocalDate date,
+            @Param("courtNumber") Integer courtNumber);
+
+    @Query("SELECT b.bookingDate AS bookingDate, b.courtNumber AS courtNumber, " +
+            "b.startTime AS startTime, b.endTime AS endTime FROM Booking b " +
+            "WHERE b.court.id = :courtId " +
+            "AND b.bookingDate BETWEEN :from AND :to " +
+            "AND b.status != 'CANCELLED'")
+    List<BookingSlot> findActiveSlots(
+            @Param("courtId") Long courtId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    // Set-based conflict data for a batch: every active booking on the requested days and court numbers
+    @Query("SELECT b.bookingDate AS bookingDate, b.courtNumber AS courtNumber, " +
+            "b.startTime AS startTime, b.endTime AS endTime FROM Booking b " +
+            "WHERE b.court.id = :courtId " +
+            "AND b.bookingDate IN :dates " +
+            "AND b.courtNumber IN :courtNumbers " +
+            "AND b.status != 'CANCELLED'")
+    List<BookingSlot> findActiveSlotsOn(
+            @Param("courtId") Long courtId,
+            @Param("dates") Collection<LocalDate> dates,
+            @Param("courtNumbers") Collection<Integer> courtNumbers);
+
+    // Sub-courts of many courts that are taken at one time of one day, in a single query
+    @Query("SELECT DISTINCT b.court.id AS courtId, b.courtNumber AS courtNumber FROM Booking b " +
+            "WHERE b.court.id IN :courtIds " +
+            "AND b.bookingDate = :date " +
+            "AND b.status != 'CANCELLED' " +
+            "AND b.startTime < :endTime AND b.endTime > :startTime")
+    List<BusyCourtNumber> findBusyCourtNumbers(
+            @Param("courtIds") Collection<Long> courtIds,
+            @Param("date") LocalDate date,
+            @Param("startTime") LocalTime startTime,
+            @Param("endTime") LocalTime endTime);
+
+    @Query(value = BOOKING_VIEW_SELECT,
+            countQuery = "SELECT COUNT(b) FROM Booking b")
+    Page<BookingView> findAllViews(Pageable pageable);
+
+    @Query(value = BOOKING_VIEW_SELECT + "WHERE u.id = :userId",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.user.id = :userId")
+    Page<BookingView> findViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Everything a my-bookings page depends on, in one aggregate row
+    @Query("SELECT COUNT(b) AS bookingCount, MAX(b.updatedAt) AS lastBookingUpdate, " +
+            "MAX(c.updatedAt) AS lastCourtUpdate, MAX(u.updatedAt) AS userUpdatedAt " +
+            "FROM Booking b JOIN b.user u JOIN b.court c WHERE u.id = :userId")
+    BookingSetVersion findVersionByUserId(@Param("userId") Long userId);
+
+    @Query(value = BOOKING_VIEW_SELECT + "WHERE c.owner.id = :ownerId",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.court.owner.id = :ownerId")
+    Page<BookingView> findViewsByCourtOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE " + KEYSET_AFTER + KEYSET_ORDER)
+    Slice<BookingView> findViewsAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE u.id = :userId AND " + KEYSET_AFTER + KEYSET_ORDER)
+    Slice<BookingView> findViewsByUserIdAfter(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE c.owner.id = :ownerId AND " + KEYSET_AFTER + KEYSET_ORDER)
+    Slice<BookingView> findViewsByCourtOwnerIdAfter(
+            @Param("ownerId") Long ownerId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(BOOKING_VIEW_SELECT + "WHERE c.id = :courtId ORDER BY b.bookingDate, b.startTime")
+    List<BookingView> findViewsByCourtId(@Param("courtId") Long courtId);
+
+    // Forward-only cursor for exports; MySQL only honours the fetch size with useCursorFetch=true
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query(BOOKING_VIEW_SELECT + "WHERE c.id = :courtId AND b.bookingDate BETWEEN :from AND :to " +
+            "ORDER BY b.bookingDate, b.startTime, b.id")
+    Stream<BookingView> streamViewsByCourtId(
+            @Param("courtId") Long courtId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
     @Query("SELECT b FROM Booking b WHERE b.court.owner.id = :ownerId " +
             "ORDER BY b.createdAt DESC")
     Page<Booking> findByCourtOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
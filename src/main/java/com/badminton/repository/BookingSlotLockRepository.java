@@ -0,0 +1,26 @@
+package com.badminton.repository;
+
+import com.badminton.entity.BookingSlotLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface BookingSlotLockRepository extends JpaRepository<BookingSlotLock, BookingSlotLock.Key> {
+
+    // Creates the slot's row if needed and holds an exclusive lock on it until commit, in one statement.
+    // Unlike INSERT IGNORE (shared lock on a duplicate) followed by FOR UPDATE, there is no lock upgrade
+    // for two writers to deadlock on, and no locking read of a missing row to take a gap lock.
+    @Modifying
+    @Query(value = "INSERT INTO booking_slot_locks (court_id, booking_date, court_number) " +
+            "VALUES (:courtId, :bookingDate, :courtNumber) " +
+            "ON DUPLICATE KEY UPDATE court_number = VALUES(court_number)", nativeQuery = true)
+    int lock(
+            @Param("courtId") Long courtId,
+            @Param("bookingDate") LocalDate bookingDate,
+            @Param("courtNumber") Integer courtNumber);
+}
@@ -2,14 +2,19 @@ package com.badminton.repository;
 
 import com.badminton.entity.Court;
 import com.badminton.entity.User;
+import com.badminton.repository.projection.CourtGeoDocument;
+import com.badminton.repository.projection.CourtSearchDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,16 +24,33 @@ public interface CourtRepository extends JpaRepository<Court, Long> {
 
     Page<Court> findByStatus(Court.CourtStatus status, Pageable pageable);
 
-    @Query("SELECT c FROM Court c WHERE " +
-            "(:name IS NULL OR LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:address IS NULL OR LOWER(c.address) LIKE LOWER(CONCAT('%', :address, '%'))) AND " +
+    @Query("SELECT c FROM Court c JOIN FETCH c.owner WHERE c.status = :status " +
+            "AND c.createdAt <= :createdAt AND (c.createdAt < :createdAt OR c.id < :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Court> findByStatusAfter(
+            @Param("status") Court.CourtStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // Price-only searches; text searches go through CourtSearchIndex
+    @Query("SELECT c FROM Court c WHERE c.status = 'ACTIVE' AND " +
             "(:minPrice IS NULL OR c.pricePerHour >= :minPrice) AND " +
-            "(:maxPrice IS NULL OR c.pricePerHour <= :maxPrice) AND " +
-            "c.status = 'ACTIVE'")
+            "(:maxPrice IS NULL OR c.pricePerHour <= :maxPrice)")
     Page<Court> searchCourts(
-            @Param("name") String name,
-            @Param("address") String address,
             @Param("minPrice") BigDecimal minPrice,
             @Param("maxPrice") BigDecimal maxPrice,
             Pageable pageable);
+
+    @Query("SELECT c.id AS id, c.name AS name, c.address AS address, c.pricePerHour AS pricePerHour, " +
+            "c.status AS status, c.createdAt AS createdAt FROM Court c")
+    List<CourtSearchDocument> findAllSearchDocuments();
+
+    @Query("SELECT c.id AS id, c.latitude AS latitude, c.longitude AS longitude, c.openTime AS openTime, " +
+            "c.closeTime AS closeTime, c.numberOfCourts AS numberOfCourts, c.status AS status FROM Court c " +
+            "WHERE c.latitude IS NOT NULL AND c.longitude IS NOT NULL")
+    List<CourtGeoDocument> findAllGeoDocuments();
+
+    @Query("SELECT c FROM Court c JOIN FETCH c.owner WHERE c.id IN :ids")
+    List<Court> findAllWithOwnerByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -2,12 +2,15 @@ package com.badminton.repository;
 
 import com.badminton.entity.Court;
 import com.badminton.entity.TimeSlot;
+import com.badminton.repository.projection.BusyCourtNumber;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,4 +24,23 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
     List<TimeSlot> findAvailableSlots(
             @Param("courtId") Long courtId,
             @Param("date") LocalDate date);
+
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.court.id = :courtId " +
+            "AND ts.date BETWEEN :from AND :to " +
+            "AND ts.status != 'AVAILABLE'")
+    List<TimeSlot> findUnavailableSlots(
+            @Param("courtId") Long courtId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Query("SELECT DISTINCT ts.court.id AS courtId, ts.courtNumber AS courtNumber FROM TimeSlot ts " +
+            "WHERE ts.court.id IN :courtIds " +
+            "AND ts.date = :date " +
+            "AND ts.status != 'AVAILABLE' " +
+            "AND ts.startTime < :endTime AND ts.endTime > :startTime")
+    List<BusyCourtNumber> findBusyCourtNumbers(
+            @Param("courtIds") Collection<Long> courtIds,
+            @Param("date") LocalDate date,
+            @Param("startTime") LocalTime startTime,
+            @Param("endTime") LocalTime endTime);
 }
@@ -1,7 +1,11 @@
 package com.badminton.repository;
 
 import com.badminton.entity.User;
+import com.badminton.repository.projection.TokenState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -15,4 +19,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     boolean existsByPhone(String phone);
+
+    @Query("SELECT u.tokenVersion AS tokenVersion, u.role AS role FROM User u WHERE u.id = :id AND u.active = true")
+    Optional<TokenState> findActiveTokenState(@Param("id") Long id);
+
+    // Rehash on login only; not a password change, so tokens and cached principals stay valid
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
@@ -0,0 +1,17 @@
+package com.badminton.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tổng hợp phiên bản của danh sách đặt sân một người dùng, dùng để tính ETag.
+ */
+public interface BookingSetVersion {
+
+    Long getBookingCount();
+
+    LocalDateTime getLastBookingUpdate();
+
+    LocalDateTime getLastCourtUpdate();
+
+    LocalDateTime getUserUpdatedAt();
+}
@@ -0,0 +1,13 @@
+package com.badminton.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Ngày, số sân và khung giờ của một đặt sân, dùng để dựng lưới lịch trống.
+ */
+public interface BookingSlot extends BookingTimeRange {
+
+    LocalDate getBookingDate();
+
+    Integer getCourtNumber();
+}
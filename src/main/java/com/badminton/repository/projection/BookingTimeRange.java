@@ -0,0 +1,13 @@
+package com.badminton.repository.projection;
+
+import java.time.LocalTime;
+
+/**
+ * Khung giờ của một đặt sân, dùng để nạp bảng chiếm chỗ mà không tải cả entity.
+ */
+public interface BookingTimeRange {
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+}
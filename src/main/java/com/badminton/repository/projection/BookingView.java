@@ -0,0 +1,44 @@
+package com.badminton.repository.projection;
+
+import com.badminton.entity.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Đúng các cột của BookingResponse, đọc bằng một câu SELECT có join user và court.
+ */
+public interface BookingView {
+
+    Long getId();
+
+    Long getUserId();
+
+    String getUserName();
+
+    String getUserPhone();
+
+    Long getCourtId();
+
+    String getCourtName();
+
+    String getCourtAddress();
+
+    LocalDate getBookingDate();
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+
+    Integer getCourtNumber();
+
+    BigDecimal getTotalPrice();
+
+    Booking.BookingStatus getStatus();
+
+    String getNotes();
+
+    LocalDateTime getCreatedAt();
+}
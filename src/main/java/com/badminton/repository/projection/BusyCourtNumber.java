@@ -0,0 +1,11 @@
+package com.badminton.repository.projection;
+
+/**
+ * Một sân con đang bận trong khung giờ được hỏi.
+ */
+public interface BusyCourtNumber {
+
+    Long getCourtId();
+
+    Integer getCourtNumber();
+}
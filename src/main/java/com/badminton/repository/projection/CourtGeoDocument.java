@@ -0,0 +1,23 @@
+package com.badminton.repository.projection;
+
+import com.badminton.entity.Court;
+
+/**
+ * Tọa độ và giờ mở cửa của sân, đọc một lần khi dựng chỉ mục tìm sân gần.
+ */
+public interface CourtGeoDocument {
+
+    Long getId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    String getOpenTime();
+
+    String getCloseTime();
+
+    Integer getNumberOfCourts();
+
+    Court.CourtStatus getStatus();
+}
@@ -0,0 +1,24 @@
+package com.badminton.repository.projection;
+
+import com.badminton.entity.Court;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Các cột của sân mà chỉ mục tìm kiếm cần, đọc một lần khi dựng chỉ mục.
+ */
+public interface CourtSearchDocument {
+
+    Long getId();
+
+    String getName();
+
+    String getAddress();
+
+    BigDecimal getPricePerHour();
+
+    Court.CourtStatus getStatus();
+
+    LocalDateTime getCreatedAt();
+}
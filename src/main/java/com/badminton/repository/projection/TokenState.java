@@ -0,0 +1,13 @@
+package com.badminton.repository.projection;
+
+import com.badminton.entity.User;
+
+/**
+ * Phiên bản token và vai trò hiện tại của một người dùng đang hoạt động, dùng để kiểm tra JWT.
+ */
+public interface TokenState {
+
+    Integer getTokenVersion();
+
+    User.UserRole getRole();
+}
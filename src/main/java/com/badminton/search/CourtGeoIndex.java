@@ -0,0 +1,206 @@
+package com.badminton.search;
+
+import com.badminton.entity.Court;
+import com.badminton.repository.CourtRepository;
+import com.badminton.repository.projection.CourtGeoDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Geohash grid of courts that have coordinates. Each court sits in one cell of
+ * {@value #PRECISION} characters (about 4.9 x 4.9 km); a radius query only looks
+ * at the cells overlapping the circle's bounding box, then measures exact distance.
+ * <p>
+ * Maintained like {@link CourtSearchIndex}: court writes are applied after commit and
+ * a background rebuild catches writes from other nodes.
+ */
+@Component
+public class CourtGeoIndex extends RebuildableIndex<CourtGeoIndex.Grid> {
+
+    public static final double MAX_RADIUS_KM = 50;
+
+    static final int PRECISION = 5;
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    // Cell size at PRECISION: 12 latitude bits and 13 longitude bits
+    private static final double CELL_LAT = 180.0 / (1 << 12);
+    private static final double CELL_LNG = 360.0 / (1 << 13);
+
+    private final CourtRepository courtRepository;
+
+    public CourtGeoIndex(CourtRepository courtRepository,
+            @Value("${court.search.rebuild-interval:10m}") Duration rebuildInterval) {
+        super(rebuildInterval, Grid::new);
+        this.courtRepository = courtRepository;
+    }
+
+    /**
+     * Active courts within radiusKm of the point, nearest first.
+     */
+    public List<Hit> within(double lat, double lng, double radiusKm) {
+        Grid grid = snapshot();
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double lngDelta = radiusKm / (KM_PER_DEGREE_LAT * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+        double minLat = Math.max(-90, lat - latDelta);
+        double maxLat = Math.min(90, lat + latDelta);
+
+        List<Hit> hits = new ArrayList<>();
+        for (String cell : cellsCovering(minLat, maxLat, lng - lngDelta, lng + lngDelta)) {
+            for (Long id : grid.cells.getOrDefault(cell, Set.of())) {
+                Point point = grid.points.get(id);
+                if (point == null || point.status() != Court.CourtStatus.ACTIVE) {
+                    continue;
+                }
+                double distance = distanceKm(lat, lng, point.lat(), point.lng());
+                if (distance <= radiusKm) {
+                    hits.add(new Hit(id, distance, point.openTime(), point.closeTime(), point.numberOfCourts()));
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparing(Hit::courtId));
+        return hits;
+    }
+
+    public void index(Court court) {
+        if (court.getLatitude() == null || court.getLongitude() == null) {
+            remove(court.getId());
+            return;
+        }
+        Point point = new Point(court.getId(), court.getLatitude(), court.getLongitude(), court.getOpenTime(),
+                court.getCloseTime(), court.getNumberOfCourts(), court.getStatus());
+        writeAfterCommit(grid -> grid.put(point));
+    }
+
+    public void remove(Long courtId) {
+        writeAfterCommit(grid -> grid.delete(courtId));
+    }
+
+    public int size() {
+        return peek().points.size();
+    }
+
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    static String geohash(double lat, double lng) {
+        double minLat = -90;
+        double maxLat = 90;
+        double minLng = -180;
+        double maxLng = 180;
+        StringBuilder hash = new StringBuilder(PRECISION);
+        boolean evenBit = true;
+        int bit = 0;
+        int value = 0;
+        while (hash.length() < PRECISION) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) {
+                    value = (value << 1) | 1;
+                    minLng = mid;
+                } else {
+                    value <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    value = (value << 1) | 1;
+                    minLat = mid;
+                } else {
+                    value <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(value));
+                bit = 0;
+                value = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    // Walks the box one cell at a time; longitudes past the antimeridian wrap around
+    private static Set<String> cellsCovering(double minLat, double maxLat, double minLng, double maxLng) {
+        Set<String> covering = new HashSet<>();
+        for (double lat = minLat; ; lat = Math.min(lat + CELL_LAT, maxLat)) {
+            for (double lng = minLng; ; lng = Math.min(lng + CELL_LNG, maxLng)) {
+                covering.add(geohash(lat, wrap(lng)));
+                if (lng >= maxLng) {
+                    break;
+                }
+            }
+            if (lat >= maxLat) {
+                break;
+            }
+        }
+        return covering;
+    }
+
+    private static double wrap(double lng) {
+        if (lng >= 180) {
+            return lng - 360;
+        }
+        return lng < -180 ? lng + 360 : lng;
+    }
+
+    @Override
+    protected void load(Grid fresh) {
+        for (CourtGeoDocument row : courtRepository.findAllGeoDocuments()) {
+            fresh.put(new Point(row.getId(), row.getLatitude(), row.getLongitude(), row.getOpenTime(),
+                    row.getCloseTime(), row.getNumberOfCourts(), row.getStatus()));
+        }
+    }
+
+    public record Hit(Long courtId, double distanceKm, String openTime, String closeTime, Integer numberOfCourts) {
+    }
+
+    private record Point(Long id, double lat, double lng, String openTime, String closeTime,
+            Integer numberOfCourts, Court.CourtStatus status) {
+    }
+
+    static final class Grid {
+
+        final ConcurrentHashMap<Long, Point> points = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Set<Long>> cells = new ConcurrentHashMap<>();
+
+        void put(Point point) {
+            Point previous = points.put(point.id(), point);
+            if (previous != null) {
+                unpost(previous);
+            }
+            cells.computeIfAbsent(geohash(point.lat(), point.lng()), cell -> ConcurrentHashMap.newKeySet())
+                    .add(point.id());
+        }
+
+        void delete(Long id) {
+            Point previous = points.remove(id);
+            if (previous != null) {
+                unpost(previous);
+            }
+        }
+
+        private void unpost(Point point) {
+            cells.computeIfPresent(geohash(point.lat(), point.lng()), (cell, ids) -> {
+                ids.remove(point.id());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
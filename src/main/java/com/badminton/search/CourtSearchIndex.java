@@ -0,0 +1,243 @@
+package com.badminton.search;
+
+import com.badminton.entity.Court;
+import com.badminton.repository.CourtRepository;
+import com.badminton.repository.projection.CourtSearchDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-process n-gram inverted index over court names and addresses. Text is folded
+ * to lowercase ASCII ("Sân Cầu Lông Đống Đa" and "san cau long dong da" index the
+ * same), every 1-3 character gram points at the courts containing it, and a query
+ * only verifies and ranks the courts on the rarest gram of each word. That avoids a
+ * table scan but is still linear in the matches: a common word such as "san" posts
+ * to nearly every court, and a query without text walks every document.
+ * <p>
+ * Kept current by the court service after each commit and rebuilt in the
+ * background as described in {@link RebuildableIndex}.
+ */
+@Component
+public class CourtSearchIndex extends RebuildableIndex<CourtSearchIndex.Snapshot> {
+
+    private static final int GRAM = 3;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final CourtRepository courtRepository;
+
+    public CourtSearchIndex(CourtRepository courtRepository,
+            @Value("${court.search.rebuild-interval:10m}") Duration rebuildInterval) {
+        super(rebuildInterval, Snapshot::new);
+        this.courtRepository = courtRepository;
+    }
+
+    /**
+     * Ids of active courts matching every word of name and address (either may be
+     * null) within the price range, best match first.
+     */
+    public List<Long> search(String name, String address, BigDecimal minPrice, BigDecimal maxPrice) {
+        Snapshot current = snapshot();
+        String nameQuery = normalize(name);
+        String addressQuery = normalize(address);
+
+        Set<Long> candidates = null;
+        if (!nameQuery.isEmpty()) {
+            candidates = candidates(current.nameGrams, nameQuery, null);
+        }
+        if (!addressQuery.isEmpty()) {
+            candidates = candidates(current.addressGrams, addressQuery, candidates);
+        }
+        if (candidates == null) {
+            candidates = current.documents.keySet();
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (Long id : candidates) {
+            Document document = current.documents.get(id);
+            if (document == null || document.status() != Court.CourtStatus.ACTIVE
+                    || !inRange(document.price(), minPrice, maxPrice)) {
+                continue;
+            }
+            double nameScore = score(document.name(), nameQuery);
+            double addressScore = score(document.address(), addressQuery);
+            if (nameScore > 0 && addressScore > 0) {
+                // Name matches outrank address matches
+                hits.add(new Hit(document, 2 * nameScore + addressScore));
+            }
+        }
+        hits.sort(Hit.ORDER);
+        return hits.stream().map(hit -> hit.document().id()).toList();
+    }
+
+    public void index(Court court) {
+        Document document = new Document(court.getId(), normalize(court.getName()), normalize(court.getAddress()),
+                court.getPricePerHour(), court.getStatus(), court.getCreatedAt());
+        writeAfterCommit(target -> target.put(document));
+    }
+
+    public void remove(Long courtId) {
+        writeAfterCommit(target -> target.delete(courtId));
+    }
+
+    public int size() {
+        return peek().documents.size();
+    }
+
+    /**
+     * Lowercase ASCII form used for both indexing and queries: diacritics are
+     * stripped, "đ" becomes "d" and anything else collapses to single spaces.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replace('đ', 'd')
+                .replace('Đ', 'D');
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("").toLowerCase(Locale.ROOT);
+        return SEPARATORS.matcher(folded).replaceAll(" ").trim();
+    }
+
+    private Set<Long> candidates(ConcurrentHashMap<String, Set<Long>> grams, String query, Set<Long> within) {
+        Set<Long> smallest = within;
+        for (String word : query.split(" ")) {
+            // The rarest gram of a word bounds its matches; they are verified later
+            Set<Long> rarest = null;
+            for (String gram : gramsOf(word)) {
+                Set<Long> postings = grams.getOrDefault(gram, Set.of());
+                if (rarest == null || postings.size() < rarest.size()) {
+                    rarest = postings;
+                }
+            }
+            if (rarest != null && (smallest == null || rarest.size() < smallest.size())) {
+                smallest = rarest;
+            }
+        }
+        return smallest != null ? smallest : Set.of();
+    }
+
+    // 0 when some word is missing; otherwise higher for whole-field, prefix and whole-word matches
+    private static double score(String field, String query) {
+        if (query.isEmpty()) {
+            return 1;
+        }
+        for (String word : query.split(" ")) {
+            if (!field.contains(word)) {
+                return 0;
+            }
+        }
+        if (field.equals(query)) {
+            return 4;
+        }
+        if (field.startsWith(query)) {
+            return 3;
+        }
+        if ((" " + field + " ").contains(" " + query + " ")) {
+            return 2.5;
+        }
+        return field.contains(query) ? 2 : 1;
+    }
+
+    private static boolean inRange(BigDecimal price, BigDecimal minPrice, BigDecimal maxPrice) {
+        return (minPrice == null || price.compareTo(minPrice) >= 0)
+                && (maxPrice == null || price.compareTo(maxPrice) <= 0);
+    }
+
+    @Override
+    protected void load(Snapshot fresh) {
+        for (CourtSearchDocument row : courtRepository.findAllSearchDocuments()) {
+            fresh.put(new Document(row.getId(), normalize(row.getName()), normalize(row.getAddress()),
+                    row.getPricePerHour(), row.getStatus(), row.getCreatedAt()));
+        }
+    }
+
+    private static void post(ConcurrentHashMap<String, Set<Long>> grams, String text, Long id) {
+        for (String gram : gramsOfText(text)) {
+            grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private static void unpost(ConcurrentHashMap<String, Set<Long>> grams, String text, Long id) {
+        for (String gram : gramsOfText(text)) {
+            grams.computeIfPresent(gram, (g, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static Set<String> gramsOfText(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String word : text.split(" ")) {
+            for (int n = 1; n <= GRAM; n++) {
+                for (int i = 0; i + n <= word.length(); i++) {
+                    grams.add(word.substring(i, i + n));
+                }
+            }
+        }
+        return grams;
+    }
+
+    // A query word is looked up by its trigrams, or as a whole when shorter
+    private static Set<String> gramsOf(String word) {
+        if (word.length() <= GRAM) {
+            return Set.of(word);
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= word.length(); i++) {
+            grams.add(word.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    static final class Snapshot {
+
+        final ConcurrentHashMap<Long, Document> documents = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Set<Long>> nameGrams = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Set<Long>> addressGrams = new ConcurrentHashMap<>();
+
+        void put(Document document) {
+            Document previous = documents.put(document.id(), document);
+            if (previous != null) {
+                unpost(nameGrams, previous.name(), previous.id());
+                unpost(addressGrams, previous.address(), previous.id());
+            }
+            post(nameGrams, document.name(), document.id());
+            post(addressGrams, document.address(), document.id());
+        }
+
+        void delete(Long id) {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                unpost(nameGrams, previous.name(), id);
+                unpost(addressGrams, previous.address(), id);
+            }
+        }
+    }
+
+    private record Document(Long id, String name, String address, BigDecimal price,
+            Court.CourtStatus status, LocalDateTime createdAt) {
+    }
+
+    private record Hit(Document document, double score) {
+
+        // Best score first, then newest, like the plain listing
+        static final Comparator<Hit> ORDER = Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(hit -> hit.document().createdAt(), Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(hit -> hit.document().id(), Comparator.reverseOrder());
+    }
+}
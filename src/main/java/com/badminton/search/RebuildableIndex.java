@@ -0,0 +1,143 @@
+package com.badminton.search;
+
+import com.badminton.transaction.AfterCommit;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory index kept current by writes applied after commit, plus a full
+ * rebuild from the database every rebuild interval to catch writes made by
+ * other nodes or outside the services. The rebuild runs on the scheduler
+ * thread, loads into a fresh snapshot and swaps it in, so readers never wait
+ * on it. Only the first read of the JVM builds in place.
+ *
+ * @param <S> mutable snapshot type; readers must only use thread-safe lookups on it
+ */
+abstract class RebuildableIndex<S> implements SchedulingConfigurer {
+
+    private final Duration rebuildInterval;
+    private final Supplier<S> emptySnapshot;
+
+    private volatile S snapshot;
+    private volatile boolean built;
+    // Locks, not synchronized: the rebuild blocks on JDBC and must not pin a virtual thread.
+    // rebuildLock serializes rebuilds; writeLock serializes writers and the swap. Readers take neither.
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Writes applied before the first build or while a rebuild is loading, replayed onto the
+    // fresh snapshot before the swap
+    private List<Consumer<S>> replay = new ArrayList<>();
+
+    protected RebuildableIndex(Duration rebuildInterval, Supplier<S> emptySnapshot) {
+        this.rebuildInterval = rebuildInterval;
+        this.emptySnapshot = emptySnapshot;
+        this.snapshot = emptySnapshot.get();
+    }
+
+    /**
+     * Reads every row from the database into the fresh snapshot.
+     */
+    protected abstract void load(S fresh);
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (!rebuildInterval.isZero() && !rebuildInterval.isNegative()) {
+            registrar.addFixedDelayTask(new FixedDelayTask(this::rebuild, rebuildInterval, rebuildInterval));
+        }
+    }
+
+    /**
+     * Reloads every row into a fresh snapshot and swaps it in.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            swapIn();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * The snapshot to read from, built first if this is the first read.
+     */
+    protected S snapshot() {
+        if (!built) {
+            rebuildLock.lock();
+            try {
+                if (!built) {
+                    swapIn();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Current snapshot without triggering the first build.
+     */
+    protected S peek() {
+        return snapshot;
+    }
+
+    /**
+     * Applies the write once the surrounding transaction commits.
+     */
+    protected void writeAfterCommit(Consumer<S> write) {
+        AfterCommit.run(() -> write(write));
+    }
+
+    private void write(Consumer<S> write) {
+        writeLock.lock();
+        try {
+            write.accept(snapshot);
+            if (replay != null) {
+                replay.add(write);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void swapIn() {
+        writeLock.lock();
+        try {
+            if (replay == null) {
+                replay = new ArrayList<>();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        S fresh = emptySnapshot.get();
+        boolean loaded = false;
+        try {
+            load(fresh);
+            loaded = true;
+        } finally {
+            writeLock.lock();
+            try {
+                if (loaded) {
+                    // Writes committed while loading may be missing from the rows read; replaying is idempotent
+                    replay.forEach(write -> write.accept(fresh));
+                    snapshot = fresh;
+                    built = true;
+                }
+                if (built) {
+                    replay = null;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+}
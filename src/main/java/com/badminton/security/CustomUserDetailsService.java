@@ -3,43 +3,37 @@ package com.badminton.security;
 import com.badminton.entity.User;
 import com.badminton.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
-import java.util.Collections;
-
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
     @Override
     @Transactional
-    public UserDetails loadUserByUsername(String emailOrPhone) throws UsernameNotFoundException {
+    public UserPrincipal loadUserByUsername(String emailOrPhone) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(emailOrPhone)
                 .orElseGet(() -> userRepository.findByPhone(emailOrPhone)
                         .orElseThrow(() -> new UsernameNotFoundException(
                                 "Không tìm thấy người dùng với email hoặc số điện thoại: " + emailOrPhone)));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                user.getActive(),
-                true,
-                true,
-                true,
-                getAuthorities(user));
+        return UserPrincipal.from(user);
     }
 
-    private Collection<? extends GrantedAuthority> getAuthorities(User user) {
-        return Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+    // Called by the authentication provider after a login whose stored hash is outdated
+    @Override
+    @Transactional
+    public UserPrincipal updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        userRepository.updatePassword(principal.getId(), newPassword);
+        return new UserPrincipal(principal.getId(), principal.getEmail(), newPassword, principal.getRole(),
+                principal.isActive(), principal.getTokenVersion());
     }
 }
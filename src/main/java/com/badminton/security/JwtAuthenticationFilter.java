@@ -1,26 +1,58 @@
 package com.badminton.security;
 
+import com.badminton.cache.PrincipalCache;
+import com.badminton.entity.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final boolean trustClaims;
+    // Token verification plus principal resolution, only for requests that carry a token
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+            CustomUserDetailsService userDetailsService,
+            PrincipalCache principalCache,
+            TokenVersionRegistry tokenVersionRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${security.jwt.trust-claims:true}") boolean trustClaims) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.trustClaims = trustClaims;
+        this.authenticatedTimer = jwtTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = jwtTimer(meterRegistry, "rejected");
+    }
+
+    private static Timer jwtTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("security.jwt.authentication")
+                .description("JWT validation and principal resolution in JwtAuthenticationFilter")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -30,6 +62,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 || path.equals("/courts")
                 || path.startsWith("/courts/search")
                 || path.matches("/courts/\\d+")
+                || path.matches("/courts/\\d+/availability")
                 || path.equals("/error")
                 || request.getMethod().equalsIgnoreCase("OPTIONS");
     }
@@ -40,28 +73,54 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
 
+        String jwt = getJwtFromRequest(request);
+        long start = System.nanoTime();
+        boolean authenticated = false;
         try {
-            String jwt = getJwtFromRequest(request);
+            Claims claims = StringUtils.hasText(jwt) ? jwtUtil.parseToken(jwt) : null;
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                String email = jwtUtil.getEmailFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            if (claims != null) {
+                UserPrincipal principal = resolvePrincipal(claims);
 
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                if (principal != null && principal.isEnabled()) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            principal, null, principal.getAuthorities());
 
-                authentication.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request));
+                    authentication.setDetails(
+                            new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    authenticated = true;
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
         }
+        if (StringUtils.hasText(jwt)) {
+            (authenticated ? authenticatedTimer : rejectedTimer).record(System.nanoTime() - start,
+                    TimeUnit.NANOSECONDS);
+        }
 
         filterChain.doFilter(request, response);
     }
 
+    private UserPrincipal resolvePrincipal(Claims claims) {
+        Long userId = claims.get(JwtUtil.CLAIM_USER_ID, Long.class);
+
+        // Tokens issued before the uid/role claims existed still go through the user lookup
+        if (!trustClaims || userId == null) {
+            return principalCache.get(claims.getSubject(), userDetailsService::loadUserByUsername);
+        }
+
+        Integer tokenVersion = claims.get(JwtUtil.CLAIM_TOKEN_VERSION, Integer.class);
+        User.UserRole role = User.UserRole.valueOf(claims.get(JwtUtil.CLAIM_ROLE, String.class));
+        if (!tokenVersionRegistry.isCurrent(userId, tokenVersion, role)) {
+            return null;
+        }
+
+        return new UserPrincipal(userId, claims.getSubject(), null, role, true, tokenVersion);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
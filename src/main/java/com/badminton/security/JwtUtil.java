@@ -1,5 +1,6 @@
 package com.badminton.security;
 
+import com.badminton.audit.AuditLog;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,27 +10,69 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "tv";
 
-    @Value("${jwt.expiration}")
-    private long jwtExpirationMs;
+    private final long jwtExpirationMs;
+    private final int verifiedCacheMaxSize;
+    private final long verifiedCacheTtlMs;
+    private final AuditLog auditLog;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Key and parser are immutable and thread-safe, build them once
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // Verified tokens keyed by SHA-256 of the token, never kept past the token's own expiry
+    private final ConcurrentHashMap<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    public JwtUtil(@Value("${jwt.secret}") String jwtSecret,
+            @Value("${jwt.expiration}") long jwtExpirationMs,
+            @Value("${jwt.verified-cache.max-size:10000}") int verifiedCacheMaxSize,
+            @Value("${jwt.verified-cache.ttl-ms:60000}") long verifiedCacheTtlMs,
+            AuditLog auditLog) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.auditLog = auditLog;
+        this.verifiedCacheMaxSize = verifiedCacheMaxSize;
+        this.verifiedCacheTtlMs = verifiedCacheTtlMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        if (userPrincipal instanceof UserPrincipal principal) {
+            return generateToken(principal);
+        }
         return generateTokenFromEmail(userPrincipal.getUsername());
     }
 
+    public String generateToken(UserPrincipal principal) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+
+        return Jwts.builder()
+                .subject(principal.getEmail())
+                .claim(CLAIM_USER_ID, principal.getId())
+                .claim(CLAIM_ROLE, principal.getRole().name())
+                .claim(CLAIM_TOKEN_VERSION, principal.getTokenVersion())
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(signingKey)
+                .compact();
+    }
+
     public String generateTokenFromEmail(String email) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
@@ -38,38 +81,92 @@ public class JwtUtil {
                 .subject(email)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return claims.getSubject();
+        Claims claims = parseToken(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateToken(String authToken) {
+        return parseToken(authToken) != null;
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or null if it is invalid.
+     */
+    public Claims parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return cached.claims;
+            }
+            verifiedTokens.remove(key, cached);
+        }
+
+        Claims claims = verify(token);
+        if (claims != null) {
+            remember(key, claims, now);
+        }
+        return claims;
+    }
+
+    // Failures go to the audit log, which never blocks the request thread on I/O
+    private Claims verify(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
-        } catch (SecurityException ex) {
-            System.err.println("Invalid JWT signature");
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
+            auditLog.authFailure("jwt.invalid_signature", null);
         } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
+            auditLog.authFailure("jwt.malformed", null);
         } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
+            auditLog.authFailure("jwt.expired", ex.getClaims().getSubject());
         } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
+            auditLog.authFailure("jwt.unsupported", null);
         } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
+            auditLog.authFailure("jwt.empty", null);
+        } catch (JwtException ex) {
+            auditLog.authFailure("jwt.invalid", null);
+        }
+        return null;
+    }
+
+    private void remember(String key, Claims claims, long now) {
+        long expiresAt = now + verifiedCacheTtlMs;
+        if (claims.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+        }
+        if (expiresAt <= now) {
+            return;
         }
-        return false;
+
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            verifiedTokens.values().removeIf(entry -> entry.expiresAt <= now);
+            if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(key, new VerifiedToken(claims, expiresAt));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
     }
 }
@@ -0,0 +1,211 @@
+package com.badminton.security;
+
+import com.badminton.dto.response.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits {@code POST /auth/login} per client IP and per account
+ * (the {@code emailOrPhone} in the body) with {@link TokenBucketLimiter}s.
+ * Runs in the security chain ahead of authentication, so a rejected attempt
+ * costs no user lookup and no password hash. A successful login refills the
+ * account's bucket, so earlier typos do not count against the owner.
+ */
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/auth/login";
+    // A login body is two short strings; anything larger is not worth buffering
+    private static final int MAX_BODY_BYTES = 4096;
+
+    private final boolean enabled;
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byAccount;
+    private final ObjectMapper objectMapper;
+    private final Counter ipLimited;
+    private final Counter accountLimited;
+
+    public LoginRateLimitFilter(
+            @Value("${security.login-rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.login-rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${security.login-rate-limit.ip.refill-period:1m}") Duration ipRefillPeriod,
+            @Value("${security.login-rate-limit.account.capacity:5}") int accountCapacity,
+            @Value("${security.login-rate-limit.account.refill-period:5m}") Duration accountRefillPeriod,
+            @Value("${security.login-rate-limit.max-keys:100000}") int maxKeys,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.byIp = new TokenBucketLimiter(ipCapacity, ipRefillPeriod, maxKeys);
+        this.byAccount = new TokenBucketLimiter(accountCapacity, accountRefillPeriod, maxKeys);
+        this.objectMapper = objectMapper;
+        this.ipLimited = limitedCounter(meterRegistry, "ip");
+        this.accountLimited = limitedCounter(meterRegistry, "account");
+    }
+
+    private static Counter limitedCounter(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("security.login.rate_limited")
+                .description("Login attempts rejected with 429 before authentication")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !request.getMethod().equalsIgnoreCase("POST")
+                || !request.getRequestURI().equals(request.getContextPath() + LOGIN_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        // Behind a reverse proxy this is only the client with server.forward-headers-strategy set
+        long waitNanos = byIp.tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            ipLimited.increment();
+            reject(response, waitNanos);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Dữ liệu không hợp lệ");
+            return;
+        }
+
+        String account = accountOf(body);
+        if (account != null) {
+            waitNanos = byAccount.tryAcquire(account);
+            if (waitNanos > 0) {
+                accountLimited.increment();
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+
+        if (account != null && response.getStatus() == HttpServletResponse.SC_OK) {
+            byAccount.reset(account);
+        }
+    }
+
+    private String accountOf(byte[] body) {
+        try {
+            JsonNode emailOrPhone = objectMapper.readTree(body).path("emailOrPhone");
+            return emailOrPhone.isTextual() && StringUtils.hasText(emailOrPhone.asText())
+                    ? emailOrPhone.asText().trim().toLowerCase(Locale.ROOT)
+                    : null;
+        } catch (IOException e) {
+            // Malformed JSON: the controller answers 400, the IP bucket already counted it
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        writeError(response, 429, "Bạn đã thử đăng nhập quá nhiều lần, vui lòng thử lại sau");
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8");
+        response.getWriter().write(objectMapper.writeValueAsString(ApiResponse.error(message)));
+    }
+
+    // The body was read to find the account; replay it for the controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available and complete right away
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.badminton.security;
+
+import com.badminton.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing (BCrypt on login and register) on a small dedicated
+ * pool, one thread per core by default, instead of on whichever Tomcat worker
+ * received the request. A login storm can then use at most those cores; the
+ * rest stay free for bookings.
+ * <p>
+ * The queue in front of the pool is bounded. When it is full, or a queued hash
+ * does not start and finish within the timeout, the caller gets a
+ * {@link TooManyRequestsException} (429) right away rather than waiting.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    static final String BUSY_MESSAGE = "Hệ thống đang bận, vui lòng thử lại sau";
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final Counter queueFull;
+    private final Counter timedOut;
+
+    public PasswordHashingExecutor(
+            @Value("${security.password.hash.threads:0}") int threads,
+            @Value("${security.password.hash.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.hash.timeout:5s}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.timeoutNanos = timeout.toNanos();
+
+        this.queueFull = rejectedCounter(meterRegistry, "queue_full");
+        this.timedOut = rejectedCounter(meterRegistry, "timeout");
+        Gauge.builder("security.password.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes in progress")
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("security.password.hash.rejected")
+                .description("Password hashes refused with 429 instead of waiting")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            queueFull.increment();
+            throw new TooManyRequestsException(BUSY_MESSAGE);
+        }
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new TooManyRequestsException(BUSY_MESSAGE);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TooManyRequestsException(BUSY_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
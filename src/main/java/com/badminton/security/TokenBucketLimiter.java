@@ -0,0 +1,112 @@
+package com.badminton.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token buckets keyed by an arbitrary string (client IP, account).
+ * <p>
+ * Each bucket holds {@code capacity} tokens and regains one every
+ * {@code refillPeriod / capacity}. It is stored as a single {@link AtomicLong}
+ * (the "theoretical arrival time" form of a token bucket): the instant the
+ * bucket would be full again. Taking a token is one CAS with no lock, and a
+ * bucket whose instant has passed is full, so it can be dropped without
+ * changing any answer.
+ * <p>
+ * Keys are spread over independent shards, and each shard has its own size
+ * cap. When a shard reaches its cap, only that shard is swept for full
+ * buckets. If every bucket in the shard is still in use, the new key is
+ * allowed through untracked instead of evicting a live one.
+ */
+public class TokenBucketLimiter {
+
+    private static final int SHARDS = 16;
+
+    private final long tokenNanos;
+    private final long burstNanos;
+    private final int maxKeysPerShard;
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, AtomicLong>[] shards = new ConcurrentHashMap[SHARDS];
+
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, int maxKeys) {
+        this.tokenNanos = refillPeriod.toNanos() / capacity;
+        this.burstNanos = tokenNanos * capacity;
+        this.maxKeysPerShard = Math.max(1, maxKeys / SHARDS);
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Takes one token for {@code key}.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = bucket(key, now);
+        if (bucket == null) {
+            return 0;
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt - now, 0) + now + tokenNanos;
+            long overdraw = next - now - burstNanos;
+            if (overdraw > 0) {
+                return overdraw;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Refills the bucket for {@code key}, e.g. after the account owner logged in successfully.
+     */
+    public void reset(String key) {
+        shard(key).remove(key);
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        ConcurrentHashMap<String, AtomicLong> shard = shard(key);
+        AtomicLong bucket = shard.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (shard.size() >= maxKeysPerShard) {
+            evictFull(shard, now);
+            if (shard.size() >= maxKeysPerShard) {
+                return null;
+            }
+        }
+        // A fresh bucket is full: "full again" is already in the past
+        return shard.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    // A request racing with this can lose the token it just took; at most one extra attempt per race
+    private static void evictFull(ConcurrentHashMap<String, AtomicLong> shard, long now) {
+        Iterator<Map.Entry<String, AtomicLong>> iterator = shard.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().get() - now <= 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> shard(String key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+    }
+}
@@ -0,0 +1,85 @@
+package com.badminton.security;
+
+import com.badminton.entity.User;
+import com.badminton.repository.UserRepository;
+import com.badminton.repository.projection.TokenState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of the current token version and role per user. A JWT is
+ * only trusted if its "tv" and role claims match; bumping the version revokes
+ * every token issued before. Entries are re-read after a short TTL, so
+ * deletes on other nodes and database-side changes to active, role or
+ * version reach this node within {@code security.token-version.ttl}.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    // Version of deleted or deactivated users, never matches a real token
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public TokenVersionRegistry(UserRepository userRepository,
+            @Value("${security.token-version.ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isCurrent(Long userId, Integer tokenVersion, User.UserRole role) {
+        if (userId == null || tokenVersion == null) {
+            return false;
+        }
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.expiresAt - now <= 0) {
+            entry = load(userId, entry, now);
+        }
+        return entry.version != REVOKED && entry.version == tokenVersion && entry.role == role;
+    }
+
+    public void revokeDeleted(Long userId) {
+        // Reject old tokens right away; after a rollback the next request reloads the row
+        Entry revoked = new Entry(REVOKED, null, System.nanoTime() + ttlNanos);
+        entries.put(userId, revoked);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        entries.remove(userId, revoked);
+                    }
+                }
+            });
+        }
+    }
+
+    // Loaded outside any map lock so the query never pins a virtual thread. The result only
+    // replaces the entry that was seen as missing or stale: a revocation published meanwhile wins.
+    private Entry load(Long userId, Entry stale, long now) {
+        TokenState state = userRepository.findActiveTokenState(userId).orElse(null);
+        Entry loaded = state != null
+                ? new Entry(state.getTokenVersion(), state.getRole(), now + ttlNanos)
+                : new Entry(REVOKED, null, now + ttlNanos);
+        if (stale == null) {
+            Entry published = entries.putIfAbsent(userId, loaded);
+            return published != null ? published : loaded;
+        }
+        if (entries.replace(userId, stale, loaded)) {
+            return loaded;
+        }
+        Entry current = entries.get(userId);
+        return current != null ? current : loaded;
+    }
+
+    private record Entry(int version, User.UserRole role, long expiresAt) {
+    }
+}
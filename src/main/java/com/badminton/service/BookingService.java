@@ -1,26 +1,50 @@
 package com.badminton.service;
 
+import com.badminton.dto.ExportFormat;
 import com.badminton.dto.request.BookingRequest;
+import com.badminton.dto.request.RecurringBookingRequest;
+import com.badminton.dto.response.BatchBookingResponse;
 import com.badminton.dto.response.BookingResponse;
+import com.badminton.dto.response.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface BookingService {
     BookingResponse createBooking(BookingRequest request, Long userId);
 
+    BatchBookingResponse createBookings(List<BookingRequest> requests, Long userId);
+
+    BatchBookingResponse createRecurringBookings(RecurringBookingRequest request, Long userId);
+
     Page<BookingResponse> getAllBookings(Pageable pageable);
 
+    CursorPage<BookingResponse> getAllBookings(String cursor, int size);
+
     BookingResponse getBookingById(Long id, Long userId);
 
     Page<BookingResponse> getUserBookings(Long userId, Pageable pageable);
 
+    CursorPage<BookingResponse> getUserBookings(Long userId, String cursor, int size);
+
+    String getUserBookingsVersion(Long userId, Pageable pageable);
+
     Page<BookingResponse> getOwnerBookings(Long ownerId, Pageable pageable);
 
+    CursorPage<BookingResponse> getOwnerBookings(Long ownerId, String cursor, int size);
+
     BookingResponse updateBookingStatus(Long id, String status, Long userId);
 
     void cancelBooking(Long id, Long userId);
 
     List<BookingResponse> getCourtBookings(Long courtId, Long ownerId);
+
+    void checkCourtAccess(Long courtId, Long userId);
+
+    void exportCourtBookings(Long courtId, LocalDate from, LocalDate to, ExportFormat format, OutputStream out)
+            throws IOException;
 }
@@ -1,11 +1,16 @@
 package com.badminton.service;
 
+import com.badminton.cache.CourtQueryCache;
 import com.badminton.dto.request.CourtRequest;
+import com.badminton.dto.response.AvailabilityResponse;
 import com.badminton.dto.response.CourtResponse;
-import org.springframework.data.domain.Page;
+import com.badminton.dto.response.CursorPage;
+import com.fasterxml.jackson.databind.util.RawValue;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 public interface CourtService {
@@ -13,17 +18,26 @@ public interface CourtService {
 
     CourtResponse updateCourt(Long id, CourtRequest request, Long ownerId);
 
-    CourtResponse getCourtById(Long id);
+    // Public reads below return pre-serialized JSON from the court cache
 
-    Page<CourtResponse> getAllCourts(Pageable pageable);
+    CourtQueryCache.CourtDetail getCourtById(Long id);
 
-    Page<CourtResponse> searchCourts(String name, String address,
+    RawValue getAllCourts(Pageable pageable);
+
+    CursorPage<CourtResponse> getAllCourts(String cursor, int size);
+
+    RawValue searchCourts(String name, String address,
             BigDecimal minPrice, BigDecimal maxPrice,
             Pageable pageable);
 
+    List<CourtResponse> getNearbyCourts(double lat, double lng, double radiusKm,
+            LocalDate date, LocalTime available, int limit);
+
     List<CourtResponse> getCourtsByOwner(Long ownerId);
 
     void deleteCourt(Long id, Long ownerId);
 
     void updateCourtStatus(Long id, String status, Long ownerId);
+
+    AvailabilityResponse getCourtAvailability(Long id, LocalDate from, LocalDate to);
 }
@@ -1,5 +1,6 @@
 package com.badminton.service.impl;
 
+import com.badminton.audit.AuditLog;
 import com.badminton.dto.request.LoginRequest;
 import com.badminton.dto.request.RegisterRequest;
 import com.badminton.dto.response.AuthResponse;
@@ -8,11 +9,13 @@ import com.badminton.entity.User;
 import com.badminton.exception.BadRequestException;
 import com.badminton.repository.UserRepository;
 import com.badminton.security.JwtUtil;
+import com.badminton.security.UserPrincipal;
 import com.badminton.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +29,7 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final AuditLog auditLog;
 
     @Override
     public AuthResponse register(RegisterRequest request) {
@@ -46,7 +50,7 @@ public class AuthServiceImpl implements AuthService {
         user.setActive(true);
 
         User savedUser = userRepository.save(user);
-        String token = jwtUtil.generateTokenFromEmail(savedUser.getEmail());
+        String token = jwtUtil.generateToken(UserPrincipal.from(savedUser));
 
         return AuthResponse.builder()
                 .token(token)
@@ -57,10 +61,16 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmailOrPhone(),
-                        request.getPassword()));
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmailOrPhone(),
+                            request.getPassword()));
+        } catch (AuthenticationException e) {
+            auditLog.authFailure("login.bad_credentials", request.getEmailOrPhone());
+            throw e;
+        }
 
         String token = jwtUtil.generateToken(authentication);
 
@@ -69,6 +79,7 @@ public class AuthServiceImpl implements AuthService {
                         .orElseThrow(() -> new BadRequestException("Thông tin đăng nhập không chính xác")));
 
         if (!user.getActive()) {
+            auditLog.authFailure("login.account_locked", request.getEmailOrPhone());
             throw new BadRequestException("Tài khoản đã bị khóa");
         }
 
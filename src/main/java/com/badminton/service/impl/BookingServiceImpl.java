@@ -1,101 +1,230 @@
 package com.badminton.service.impl;
 
+import com.badminton.audit.AuditLog;
+import com.badminton.cache.OccupancyIndex;
+import com.badminton.dto.Cursor;
+import com.badminton.dto.ExportFormat;
 import com.badminton.dto.request.BookingRequest;
+import com.badminton.dto.request.RecurringBookingRequest;
+import com.badminton.dto.response.BatchBookingResponse;
 import com.badminton.dto.response.BookingResponse;
+import com.badminton.dto.response.CursorPage;
 import com.badminton.entity.Booking;
 import com.badminton.entity.Court;
 import com.badminton.entity.User;
 import com.badminton.exception.BadRequestException;
+import com.badminton.exception.BookingConflictException;
 import com.badminton.exception.ResourceNotFoundException;
 import com.badminton.exception.UnauthorizedException;
+import com.badminton.lock.BookingSlotLocks;
+import com.badminton.metrics.BookingMetrics;
 import com.badminton.repository.BookingRepository;
 import com.badminton.repository.CourtRepository;
 import com.badminton.repository.UserRepository;
+import com.badminton.repository.projection.BookingSetVersion;
+import com.badminton.repository.projection.BookingSlot;
+import com.badminton.repository.projection.BookingView;
+import com.badminton.security.UserPrincipal;
 import com.badminton.service.BookingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
 
+    // Admin exports page through everything, so slices may be larger than UI pages
+    private static final int MAX_SLICE_SIZE = 500;
+
+    // Open-ended export ranges, kept inside what DATE columns accept
+    private static final LocalDate EXPORT_MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate EXPORT_MAX_DATE = LocalDate.of(9999, 12, 31);
+    private static final String CSV_HEADER = "id,bookingDate,startTime,endTime,courtNumber,status,totalPrice,"
+            + "userId,userName,userPhone,notes,createdAt\r\n";
+
     private final BookingRepository bookingRepository;
     private final CourtRepository courtRepository;
     private final UserRepository userRepository;
+    private final OccupancyIndex occupancyIndex;
+    private final BookingSlotLocks slotLocks;
+    private final ObjectMapper objectMapper;
+    private final BookingMetrics bookingMetrics;
+    private final AuditLog auditLog;
+
+    @Value("${booking.batch.max-occurrences:100}")
+    private int maxBatchOccurrences;
 
+    // Writes that take slot locks run at READ COMMITTED: under REPEATABLE READ the snapshot opened by
+    // the first read would hide bookings committed while this transaction waited for the lock
     @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public BookingResponse createBooking(BookingRequest request, Long userId) {
+        return bookingMetrics.recordCreate(() -> create(request, userId));
+    }
+
+    private BookingResponse create(BookingRequest request, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy người dùng"));
 
         Court court = courtRepository.findById(request.getCourtId())
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy sân"));
 
-        // Validate booking date
-        if (request.getBookingDate().isBefore(LocalDate.now())) {
-            throw new BadRequestException("Không thể đặt sân cho ngày trong quá khứ");
+        Booking booking = newBooking(user, court, request);
+
+        // Check for conflicts; the slot stays locked until this booking is committed
+        slotLocks.lock(court.getId(), booking.getBookingDate(), booking.getCourtNumber());
+        if (hasConflict(court, booking.getBookingDate(), booking.getCourtNumber(),
+                booking.getStartTime(), booking.getEndTime())) {
+            bookingMetrics.conflict("create");
+            throw new BookingConflictException();
         }
 
-        // Validate time
-        LocalTime startTime = LocalTime.parse(request.getStartTime());
-        LocalTime endTime = LocalTime.parse(request.getEndTime());
-        LocalTime openTime = LocalTime.parse(court.getOpenTime());
-        LocalTime closeTime = LocalTime.parse(court.getCloseTime());
+        Booking savedBooking = bookingRepository.save(booking);
+        occupancyIndex.occupy(savedBooking);
+        auditLog.bookingTransition(savedBooking.getId(), null, savedBooking.getStatus());
+        return mapToBookingResponse(savedBooking);
+    }
 
-        if (startTime.isBefore(openTime) || endTime.isAfter(closeTime)) {
-            throw new BadRequestException("Thời gian đặt sân không hợp lệ");
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public BatchBookingResponse createBookings(List<BookingRequest> requests, Long userId) {
+        if (requests.size() > maxBatchOccurrences) {
+            throw new BadRequestException("Tối đa " + maxBatchOccurrences + " lượt đặt sân mỗi lần");
         }
 
-        if (startTime.isAfter(endTime) || startTime.equals(endTime)) {
-            throw new BadRequestException("Thời gian bắt đầu phải trước thời gian kết thúc");
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy người dùng"));
+        Set<Long> courtIds = requests.stream().map(BookingRequest::getCourtId).collect(Collectors.toSet());
+        Map<Long, Court> courts = courtRepository.findAllById(courtIds).stream()
+                .collect(Collectors.toMap(Court::getId, Function.identity()));
+
+        // Validate every occurrence on its own first, a bad one does not fail the others
+        Booking[] candidates = new Booking[requests.size()];
+        String[] errors = new String[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            Court court = courts.get(requests.get(i).getCourtId());
+            if (court == null) {
+                errors[i] = "Không tìm thấy sân";
+                bookingMetrics.rejected("batch", "not_found");
+                continue;
+            }
+            try {
+                candidates[i] = newBooking(user, court, requests.get(i));
+            } catch (BadRequestException e) {
+                errors[i] = e.getMessage();
+                bookingMetrics.rejected("batch", "invalid");
+            }
         }
 
-        // Validate court number
-        if (request.getCourtNumber() < 1 || request.getCourtNumber() > court.getNumberOfCourts()) {
-            throw new BadRequestException("Số sân không hợp lệ");
+        List<BookingSlotLocks.Slot> slots = Arrays.stream(candidates)
+                .filter(Objects::nonNull)
+                .map(BookingServiceImpl::slotOf)
+                .distinct()
+                .collect(Collectors.toList());
+        slotLocks.lockAll(slots);
+
+        // One conflict query per court, then overlaps inside the batch itself
+        long checkStart = System.nanoTime();
+        Map<BookingSlotLocks.Slot, List<TimeRange>> occupied = loadOccupied(slots);
+        bookingMetrics.recordConflictCheck("batch", checkStart);
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < candidates.length; i++) {
+            Booking booking = candidates[i];
+            if (booking == null) {
+                continue;
+            }
+            List<TimeRange> taken = occupied.computeIfAbsent(slotOf(booking), slot -> new ArrayList<>());
+            if (overlapsAny(taken, booking.getStartTime(), booking.getEndTime())) {
+                candidates[i] = null;
+                errors[i] = "Sân đã được đặt trong khung giờ này";
+                bookingMetrics.conflict("batch");
+                bookingMetrics.rejected("batch", "conflict");
+                continue;
+            }
+            taken.add(new TimeRange(booking.getStartTime(), booking.getEndTime()));
+            accepted.add(booking);
         }
 
-        // Check for conflicts
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-                court.getId(),
-                request.getBookingDate(),
-                request.getCourtNumber(),
-                startTime,
-                endTime);
-
-        if (!conflicts.isEmpty()) {
-            throw new BadRequestException("Sân đã được đặt trong khung giờ này");
+        // Pooled ids, so these go out as JDBC batches at flush
+        bookingRepository.saveAll(accepted);
+        accepted.forEach(occupancyIndex::occupy);
+        accepted.forEach(booking -> auditLog.bookingTransition(booking.getId(), null, booking.getStatus()));
+
+        List<BatchBookingResponse.OccurrenceResult> results = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            results.add(BatchBookingResponse.OccurrenceResult.builder()
+                    .index(i)
+                    .bookingDate(request.getBookingDate())
+                    .courtNumber(request.getCourtNumber())
+                    .startTime(request.getStartTime())
+                    .endTime(request.getEndTime())
+                    .created(candidates[i] != null)
+                    .message(errors[i])
+                    .booking(candidates[i] != null ? mapToBookingResponse(candidates[i]) : null)
+                    .build());
         }
 
-        // Calculate total price
-        long hours = Duration.between(startTime, endTime).toHours();
-        BigDecimal totalPrice = court.getPricePerHour().multiply(BigDecimal.valueOf(hours));
+        return BatchBookingResponse.builder()
+                .createdCount(accepted.size())
+                .rejectedCount(requests.size() - accepted.size())
+                .results(results)
+                .build();
+    }
 
-        // Create booking
-        Booking booking = new Booking();
-        booking.setUser(user);
-        booking.setCourt(court);
-        booking.setBookingDate(request.getBookingDate());
-        booking.setStartTime(startTime);
-        booking.setEndTime(endTime);
-        booking.setCourtNumber(request.getCourtNumber());
-        booking.setTotalPrice(totalPrice);
-        booking.setNotes(request.getNotes());
-        booking.setStatus(Booking.BookingStatus.PENDING);
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public BatchBookingResponse createRecurringBookings(RecurringBookingRequest request, Long userId) {
+        if (request.getUntilDate().isBefore(request.getStartDate())) {
+            throw new BadRequestException("Ngày kết thúc phải sau ngày bắt đầu");
+        }
 
-        Booking savedBooking = bookingRepository.save(booking);
-        return mapToBookingResponse(savedBooking);
+        Period step = request.getFrequency() == RecurringBookingRequest.Frequency.DAILY
+                ? Period.ofDays(1)
+                : Period.ofWeeks(1);
+        List<BookingRequest> occurrences = new ArrayList<>();
+        for (LocalDate date = request.getStartDate(); !date.isAfter(request.getUntilDate()); date = date.plus(step)) {
+            if (occurrences.size() == maxBatchOccurrences) {
+                throw new BadRequestException("Tối đa " + maxBatchOccurrences + " lượt đặt sân mỗi lần");
+            }
+            occurrences.add(new BookingRequest(request.getCourtId(), date, request.getStartTime(),
+                    request.getEndTime(), request.getCourtNumber(), request.getNotes()));
+        }
+        return createBookings(occurrences, userId);
     }
 
     @Override
@@ -113,53 +242,112 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Page<BookingResponse> getUserBookings(Long userId, Pageable pageable) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy người dùng"));
-
-        return bookingRepository.findByUserOrderByCreatedAtDesc(user, pageable)
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Không tìm thấy người dùng");
+        }
+        return bookingRepository.findViewsByUserId(userId, pageable)
                 .map(this::mapToBookingResponse);
     }
 
+    // ETag source for a my-bookings page, answered by one aggregate query instead of loading the page
+    @Override
+    @Transactional(readOnly = true)
+    public String getUserBookingsVersion(Long userId, Pageable pageable) {
+        BookingSetVersion version = bookingRepository.findVersionByUserId(userId);
+        return "bookings-" + userId + "-" + version.getBookingCount()
+                + "-" + toVersion(version.getLastBookingUpdate())
+                + "-" + toVersion(version.getLastCourtUpdate())
+                + "-" + toVersion(version.getUserUpdatedAt())
+                + "-p" + pageable.getPageNumber() + "." + pageable.getPageSize();
+    }
+
     @Override
     public Page<BookingResponse> getOwnerBookings(Long ownerId, Pageable pageable) {
-        return bookingRepository.findByCourtOwnerId(ownerId, pageable)
+        return bookingRepository.findViewsByCourtOwnerId(ownerId, pageable)
                 .map(this::mapToBookingResponse);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookingResponse> getAllBookings(String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        return toCursorPage(bookingRepository.findViewsAfter(after.createdAt(), after.id(), sliceOf(size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookingResponse> getUserBookings(Long userId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        return toCursorPage(bookingRepository.findViewsByUserIdAfter(userId, after.createdAt(), after.id(),
+                sliceOf(size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<BookingResponse> getOwnerBookings(Long ownerId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        return toCursorPage(bookingRepository.findViewsByCourtOwnerIdAfter(ownerId, after.createdAt(), after.id(),
+                sliceOf(size)));
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public BookingResponse updateBookingStatus(Long id, String status, Long userId) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy đặt sân"));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy người dùng"));
-
         // ✅ SỬA: Cho phép ADMIN cập nhật bất kỳ booking nào
         boolean isOwner = booking.getCourt().getOwner().getId().equals(userId);
-        boolean isAdmin = user.getRole() == User.UserRole.ADMIN;
+        boolean isAdmin = !isOwner && isAdmin(userId);
 
         if (!isOwner && !isAdmin) {
             throw new UnauthorizedException("Bạn không có quyền cập nhật trạng thái đặt sân này");
         }
 
-        booking.setStatus(Booking.BookingStatus.valueOf(status.toUpperCase()));
+        Booking.BookingStatus previousStatus = booking.getStatus();
+        Booking.BookingStatus newStatus = Booking.BookingStatus.valueOf(status.toUpperCase());
+
+        // Occupancy changes of a slot are serialized with loads of that slot in OccupancyIndex
+        if ((previousStatus == Booking.BookingStatus.CANCELLED) != (newStatus == Booking.BookingStatus.CANCELLED)) {
+            slotLocks.lock(booking.getCourt().getId(), booking.getBookingDate(), booking.getCourtNumber());
+        }
+
+        // Khôi phục đặt sân đã hủy: khung giờ có thể đã bị người khác đặt
+        if (previousStatus == Booking.BookingStatus.CANCELLED && newStatus != Booking.BookingStatus.CANCELLED) {
+            if (hasConflict(booking.getCourt(), booking.getBookingDate(), booking.getCourtNumber(),
+                    booking.getStartTime(), booking.getEndTime())) {
+                bookingMetrics.conflict("restore");
+                throw new BookingConflictException();
+            }
+        }
+
+        booking.setStatus(newStatus);
         Booking updatedBooking = bookingRepository.save(booking);
+
+        if (previousStatus != Booking.BookingStatus.CANCELLED
+                && updatedBooking.getStatus() == Booking.BookingStatus.CANCELLED) {
+            occupancyIndex.release(updatedBooking);
+        } else if (previousStatus == Booking.BookingStatus.CANCELLED
+                && updatedBooking.getStatus() != Booking.BookingStatus.CANCELLED) {
+            occupancyIndex.occupy(updatedBooking);
+        }
+        if (previousStatus != newStatus) {
+            auditLog.bookingTransition(updatedBooking.getId(), previousStatus, newStatus);
+        }
         return mapToBookingResponse(updatedBooking);
     }
 
     @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void cancelBooking(Long id, Long userId) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy đặt sân"));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy người dùng"));
-
         // ✅ SỬA: Cho phép user hủy booking của mình, hoặc ADMIN/OWNER hủy bất kỳ
         // booking nào
         boolean isBookingOwner = booking.getUser().getId().equals(userId);
         boolean isCourtOwner = booking.getCourt().getOwner().getId().equals(userId);
-        boolean isAdmin = user.getRole() == User.UserRole.ADMIN;
+        boolean isAdmin = !isBookingOwner && !isCourtOwner && isAdmin(userId);
 
         if (!isBookingOwner && !isCourtOwner && !isAdmin) {
             throw new UnauthorizedException("Bạn không có quyền hủy đặt sân này");
@@ -169,29 +357,231 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Không thể hủy đặt sân đã hoàn thành");
         }
 
+        Booking.BookingStatus previousStatus = booking.getStatus();
+        boolean wasCancelled = previousStatus == Booking.BookingStatus.CANCELLED;
+        if (!wasCancelled) {
+            slotLocks.lock(booking.getCourt().getId(), booking.getBookingDate(), booking.getCourtNumber());
+        }
         booking.setStatus(Booking.BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+
+        if (!wasCancelled) {
+            occupancyIndex.release(booking);
+            auditLog.bookingTransition(booking.getId(), previousStatus, Booking.BookingStatus.CANCELLED);
+        }
     }
 
     @Override
     public List<BookingResponse> getCourtBookings(Long courtId, Long ownerId) {
+        checkCourtAccess(courtId, ownerId);
+        return bookingRepository.findViewsByCourtId(courtId).stream()
+                .map(this::mapToBookingResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkCourtAccess(Long courtId, Long userId) {
         Court court = courtRepository.findById(courtId)
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy sân"));
 
-        User user = userRepository.findById(ownerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy người dùng"));
-
         // ✅ SỬA: Cho phép ADMIN xem bookings của bất kỳ sân nào
-        boolean isOwner = court.getOwner().getId().equals(ownerId);
-        boolean isAdmin = user.getRole() == User.UserRole.ADMIN;
+        boolean isOwner = court.getOwner().getId().equals(userId);
+        boolean isAdmin = !isOwner && isAdmin(userId);
 
         if (!isOwner && !isAdmin) {
             throw new UnauthorizedException("Bạn không có quyền xem đặt sân của sân này");
         }
+    }
 
-        return bookingRepository.findByCourt(court).stream()
-                .map(this::mapToBookingResponse)
-                .collect(Collectors.toList());
+    /**
+     * Writes the court's bookings straight from a forward-only cursor, one row at a time.
+     * Rows are flat projections, so nothing is kept in the persistence context and memory
+     * stays flat however many bookings the court has. Access and parameters must be checked
+     * by the caller before the response is committed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCourtBookings(Long courtId, LocalDate from, LocalDate to, ExportFormat format,
+            OutputStream out) throws IOException {
+        LocalDate start = from != null ? from : EXPORT_MIN_DATE;
+        LocalDate end = to != null ? to : EXPORT_MAX_DATE;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            // BOM so Excel opens Vietnamese names as UTF-8
+            writer.write('\uFEFF');
+            writer.write(CSV_HEADER);
+        }
+        try (Stream<BookingView> rows = bookingRepository.streamViewsByCourtId(courtId, start, end)) {
+            Iterator<BookingView> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                BookingView row = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(mapToBookingResponse(row)));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, BookingView row) throws IOException {
+        Object[] values = {row.getId(), row.getBookingDate(), row.getStartTime(), row.getEndTime(),
+                row.getCourtNumber(), row.getStatus(), row.getTotalPrice(), row.getUserId(),
+                row.getUserName(), row.getUserPhone(), row.getNotes(), row.getCreatedAt()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvEscape(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // Role comes from the authenticated principal when it is the same user, no query needed
+    private boolean isAdmin(Long userId) {
+        UserPrincipal principal = UserPrincipal.current();
+        if (principal != null && principal.getId().equals(userId)) {
+            return principal.isAdmin();
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy người dùng"));
+        return user.getRole() == User.UserRole.ADMIN;
+    }
+
+    private boolean hasConflict(Court court, LocalDate date, Integer courtNumber,
+            LocalTime startTime, LocalTime endTime) {
+        long start = System.nanoTime();
+        OccupancyIndex.Answer answer = occupancyIndex.check(court, date, courtNumber, startTime, endTime);
+        if (answer == OccupancyIndex.Answer.OCCUPIED
+                || answer == OccupancyIndex.Answer.FREE && !slotLocks.isDistributed()) {
+            bookingMetrics.recordConflictCheck("index", start);
+            return answer == OccupancyIndex.Answer.OCCUPIED;
+        }
+        // Index cannot decide (partial units) or other nodes may have written, the DB stays authoritative
+        boolean conflict = bookingRepository.existsConflictingBooking(court.getId(), date, courtNumber,
+                startTime, endTime);
+        bookingMetrics.recordConflictCheck("database", start);
+        return conflict;
+    }
+
+    // Validates one request against the court and builds the unsaved booking
+    private Booking newBooking(User user, Court court, BookingRequest request) {
+        // Validate booking date
+        if (request.getBookingDate().isBefore(LocalDate.now())) {
+            throw new BadRequestException("Không thể đặt sân cho ngày trong quá khứ");
+        }
+
+        // Validate time
+        LocalTime startTime = LocalTime.parse(request.getStartTime());
+        LocalTime endTime = LocalTime.parse(request.getEndTime());
+        LocalTime openTime = LocalTime.parse(court.getOpenTime());
+        LocalTime closeTime = LocalTime.parse(court.getCloseTime());
+
+        if (startTime.isBefore(openTime) || endTime.isAfter(closeTime)) {
+            throw new BadRequestException("Thời gian đặt sân không hợp lệ");
+        }
+
+        if (startTime.isAfter(endTime) || startTime.equals(endTime)) {
+            throw new BadRequestException("Thời gian bắt đầu phải trước thời gian kết thúc");
+        }
+
+        // Validate court number
+        if (request.getCourtNumber() < 1 || request.getCourtNumber() > court.getNumberOfCourts()) {
+            throw new BadRequestException("Số sân không hợp lệ");
+        }
+
+        // Calculate total price
+        long hours = Duration.between(startTime, endTime).toHours();
+        BigDecimal totalPrice = court.getPricePerHour().multiply(BigDecimal.valueOf(hours));
+
+        // Create booking
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setCourt(court);
+        booking.setBookingDate(request.getBookingDate());
+        booking.setStartTime(startTime);
+        booking.setEndTime(endTime);
+        booking.setCourtNumber(request.getCourtNumber());
+        booking.setTotalPrice(totalPrice);
+        booking.setNotes(request.getNotes());
+        booking.setStatus(Booking.BookingStatus.PENDING);
+
+        return booking;
+    }
+
+    private static Pageable sliceOf(int size) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new BadRequestException("Kích thước trang phải từ 1 đến " + MAX_SLICE_SIZE);
+        }
+        // Order comes from the keyset query itself
+        return PageRequest.of(0, size);
+    }
+
+    private CursorPage<BookingResponse> toCursorPage(Slice<BookingView> slice) {
+        List<BookingView> views = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            BookingView last = views.get(views.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPage.<BookingResponse>builder()
+                .content(views.stream().map(this::mapToBookingResponse).collect(Collectors.toList()))
+                .size(views.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private Map<BookingSlotLocks.Slot, List<TimeRange>> loadOccupied(List<BookingSlotLocks.Slot> slots) {
+        Map<BookingSlotLocks.Slot, List<TimeRange>> occupied = new HashMap<>();
+        Map<Long, List<BookingSlotLocks.Slot>> byCourt = slots.stream()
+                .collect(Collectors.groupingBy(BookingSlotLocks.Slot::courtId));
+        byCourt.forEach((courtId, courtSlots) -> {
+            Set<LocalDate> dates = courtSlots.stream().map(BookingSlotLocks.Slot::date).collect(Collectors.toSet());
+            Set<Integer> courtNumbers = courtSlots.stream()
+                    .map(BookingSlotLocks.Slot::courtNumber)
+                    .collect(Collectors.toSet());
+            for (BookingSlot slot : bookingRepository.findActiveSlotsOn(courtId, dates, courtNumbers)) {
+                occupied.computeIfAbsent(new BookingSlotLocks.Slot(courtId, slot.getBookingDate(), slot.getCourtNumber()),
+                        key -> new ArrayList<>()).add(new TimeRange(slot.getStartTime(), slot.getEndTime()));
+            }
+        });
+        return occupied;
+    }
+
+    private static boolean overlapsAny(List<TimeRange> taken, LocalTime startTime, LocalTime endTime) {
+        for (TimeRange range : taken) {
+            if (range.overlaps(startTime, endTime)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BookingSlotLocks.Slot slotOf(Booking booking) {
+        return new BookingSlotLocks.Slot(booking.getCourt().getId(), booking.getBookingDate(),
+                booking.getCourtNumber());
+    }
+
+    private static String toVersion(LocalDateTime time) {
+        if (time == null) {
+            return "0";
+        }
+        return Long.toHexString(time.toEpochSecond(ZoneOffset.UTC)) + "." + Integer.toHexString(time.getNano());
     }
 
     private BookingResponse mapToBookingResponse(Booking booking) {
@@ -214,10 +604,46 @@ public class BookingServiceImpl implements BookingService {
                 .build();
     }
 
+    // Projection rows already carry user and court columns, no lazy loading here
+    private BookingResponse mapToBookingResponse(BookingView view) {
+        return BookingResponse.builder()
+                .id(view.getId())
+                .userId(view.getUserId())
+                .userName(view.getUserName())
+                .userPhone(view.getUserPhone())
+                .courtId(view.getCourtId())
+                .courtName(view.getCourtName())
+                .courtAddress(view.getCourtAddress())
+                .bookingDate(view.getBookingDate())
+                .startTime(view.getStartTime().toString())
+                .endTime(view.getEndTime().toString())
+                .courtNumber(view.getCourtNumber())
+                .totalPrice(view.getTotalPrice())
+                .status(view.getStatus().name())
+                .notes(view.getNotes())
+                .createdAt(view.getCreatedAt())
+                .build();
+    }
+
     @Override
     public Page<BookingResponse> getAllBookings(Pageable pageable) {
-        return bookingRepository.findAll(pageable)
+        return bookingRepository.findAllViews(pageable)
                 .map(this::mapToBookingResponse);
     }
 
+    // Occupied [start, end) of one slot while a batch is checked
+    private static final class TimeRange {
+
+        private final LocalTime start;
+        private final LocalTime end;
+
+        TimeRange(LocalTime start, LocalTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean overlaps(LocalTime otherStart, LocalTime otherEnd) {
+            return start.isBefore(otherEnd) && end.isAfter(otherStart);
+        }
+    }
 }
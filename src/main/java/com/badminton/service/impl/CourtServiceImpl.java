@@ -1,24 +1,57 @@
 package com.badminton.service.impl;
 
+import com.badminton.audit.AuditLog;
+import com.badminton.cache.CourtQueryCache;
+import com.badminton.cache.OccupancyIndex;
+import com.badminton.dto.Cursor;
 import com.badminton.dto.request.CourtRequest;
+import com.badminton.dto.response.AvailabilityResponse;
 import com.badminton.dto.response.CourtResponse;
+import com.badminton.dto.response.CursorPage;
 import com.badminton.entity.Court;
+import com.badminton.entity.TimeSlot;
 import com.badminton.entity.User;
+import com.badminton.exception.BadRequestException;
 import com.badminton.exception.ResourceNotFoundException;
 import com.badminton.exception.UnauthorizedException;
+import com.badminton.repository.BookingRepository;
 import com.badminton.repository.CourtRepository;
+import com.badminton.repository.TimeSlotRepository;
 import com.badminton.repository.UserRepository;
+import com.badminton.repository.projection.BookingSlot;
+import com.badminton.repository.projection.BusyCourtNumber;
+import com.badminton.search.CourtGeoIndex;
+import com.badminton.search.CourtSearchIndex;
 import com.badminton.service.CourtService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,9 +59,23 @@ import java.util.stream.Collectors;
 @Transactional
 public class CourtServiceImpl implements CourtService {
 
+    private static final int MAX_AVAILABILITY_DAYS = 31;
+    private static final int MAX_SLICE_SIZE = 100;
+    private static final int MAX_NEARBY_RESULTS = 100;
+    // Length of the play time asked for by "available" in the nearby search
+    private static final int NEARBY_SLOT_MINUTES = 60;
+
     private final CourtRepository courtRepository;
+    private final BookingRepository bookingRepository;
+    private final TimeSlotRepository timeSlotRepository;
     private final UserRepository userRepository;
-    private final ObjectMapper objectMapper;
+    private final OccupancyIndex occupancyIndex;
+    private final CourtQueryCache courtQueryCache;
+    private final CourtSearchIndex courtSearchIndex;
+    private final CourtGeoIndex courtGeoIndex;
+    private final MeterRegistry meterRegistry;
+    private final AuditLog auditLog;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     public CourtResponse createCourt(CourtRequest request, Long ownerId) {
@@ -47,22 +94,22 @@ public class CourtServiceImpl implements CourtService {
         court.setNumberOfCourts(request.getNumberOfCourts());
         court.setOpenTime(request.getOpenTime());
         court.setCloseTime(request.getCloseTime());
+        court.setLatitude(request.getLatitude());
+        court.setLongitude(request.getLongitude());
         court.setOwner(owner);
         court.setStatus(Court.CourtStatus.ACTIVE);
 
-        // Convert List to JSON String
-        try {
-            if (request.getFacilities() != null) {
-                court.setFacilities(objectMapper.writeValueAsString(request.getFacilities()));
-            }
-            if (request.getImages() != null) {
-                court.setImages(objectMapper.writeValueAsString(request.getImages()));
-            }
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Lỗi xử lý dữ liệu", e);
+        if (request.getFacilities() != null) {
+            court.setFacilities(withoutNulls(request.getFacilities()));
+        }
+        if (request.getImages() != null) {
+            court.setImages(withoutNulls(request.getImages()));
         }
 
         Court savedCourt = courtRepository.save(court);
+        courtQueryCache.evictCourt(savedCourt.getId());
+        courtSearchIndex.index(savedCourt);
+        courtGeoIndex.index(savedCourt);
         return mapToCourtResponse(savedCourt);
     }
 
@@ -82,44 +129,186 @@ public class CourtServiceImpl implements CourtService {
         court.setNumberOfCourts(request.getNumberOfCourts());
         court.setOpenTime(request.getOpenTime());
         court.setCloseTime(request.getCloseTime());
+        court.setLatitude(request.getLatitude());
+        court.setLongitude(request.getLongitude());
 
-        try {
-            if (request.getFacilities() != null) {
-                court.setFacilities(objectMapper.writeValueAsString(request.getFacilities()));
-            }
-            if (request.getImages() != null) {
-                court.setImages(objectMapper.writeValueAsString(request.getImages()));
-            }
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Lỗi xử lý dữ liệu", e);
+        if (request.getFacilities() != null) {
+            court.setFacilities(withoutNulls(request.getFacilities()));
+        }
+        if (request.getImages() != null) {
+            court.setImages(withoutNulls(request.getImages()));
         }
 
         Court updatedCourt = courtRepository.save(court);
+        occupancyIndex.evictCourt(updatedCourt.getId());
+        courtQueryCache.evictCourt(updatedCourt.getId());
+        courtSearchIndex.index(updatedCourt);
+        courtGeoIndex.index(updatedCourt);
         return mapToCourtResponse(updatedCourt);
     }
 
+    // Cached reads join a caller's transaction but don't open one, so a hit never takes a connection
     @Override
-    public CourtResponse getCourtById(Long id) {
-        Court court = courtRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy sân"));
-        return mapToCourtResponse(court);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CourtQueryCache.CourtDetail getCourtById(Long id) {
+        return courtQueryCache.getCourt(id, () -> readOnly(() -> {
+            Court court = courtRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy sân"));
+            return mapToCourtResponse(court);
+        }));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RawValue getAllCourts(Pageable pageable) {
+        return courtQueryCache.getPage(CourtQueryCache.listKey(pageable), () -> readOnly(() ->
+                courtRepository.findByStatus(Court.CourtStatus.ACTIVE, pageable)
+                        .map(this::mapToCourtResponse)));
     }
 
     @Override
-    public Page<CourtResponse> getAllCourts(Pageable pageable) {
-        return courtRepository.findByStatus(Court.CourtStatus.ACTIVE, pageable)
-                .map(this::mapToCourtResponse);
+    @Transactional(readOnly = true)
+    public CursorPage<CourtResponse> getAllCourts(String cursor, int size) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new BadRequestException("Kích thước trang phải từ 1 đến " + MAX_SLICE_SIZE);
+        }
+        Cursor after = Cursor.decode(cursor);
+        Slice<Court> slice = courtRepository.findByStatusAfter(Court.CourtStatus.ACTIVE,
+                after.createdAt(), after.id(), PageRequest.of(0, size));
+
+        List<Court> courts = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Court last = courts.get(courts.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPage.<CourtResponse>builder()
+                .content(courts.stream().map(this::mapToCourtResponse).collect(Collectors.toList()))
+                .size(courts.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
-    public Page<CourtResponse> searchCourts(String name, String address,
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RawValue searchCourts(String name, String address,
             BigDecimal minPrice, BigDecimal maxPrice,
             Pageable pageable) {
-        return courtRepository.searchCourts(name, address, minPrice, maxPrice, pageable)
-                .map(this::mapToCourtResponse);
+        return courtQueryCache.getPage(CourtQueryCache.searchKey(name, address, minPrice, maxPrice, pageable),
+                () -> readOnly(() -> loadSearchPage(name, address, minPrice, maxPrice, pageable)));
+    }
+
+    private Page<CourtResponse> loadSearchPage(String name, String address,
+            BigDecimal minPrice, BigDecimal maxPrice,
+            Pageable pageable) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        if (CourtSearchIndex.normalize(name).isEmpty() && CourtSearchIndex.normalize(address).isEmpty()) {
+            Page<CourtResponse> page = courtRepository.searchCourts(minPrice, maxPrice, pageable)
+                    .map(this::mapToCourtResponse);
+            sample.stop(searchTimer("database"));
+            return page;
+        }
+
+        // Text searches are ranked by relevance in the index; only the page itself is loaded
+        List<Long> ids = courtSearchIndex.search(name, address, minPrice, maxPrice);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        List<Long> pageIds = ids.subList(from, Math.min(from + pageable.getPageSize(), ids.size()));
+        Map<Long, Court> courts = courtRepository.findAllWithOwnerByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Court::getId, Function.identity()));
+
+        List<CourtResponse> content = pageIds.stream()
+                .map(courts::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToCourtResponse)
+                .collect(Collectors.toList());
+        sample.stop(searchTimer("index"));
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+
+    private <T> T readOnly(Supplier<T> query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> query.get());
+    }
+
+    private Timer searchTimer(String source) {
+        return Timer.builder("court.search")
+                .description("CourtService.searchCourts, by where the matches came from")
+                .tag("source", source)
+                .register(meterRegistry);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<CourtResponse> getNearbyCourts(double lat, double lng, double radiusKm,
+            LocalDate date, LocalTime available, int limit) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new BadRequestException("Tọa độ không hợp lệ");
+        }
+        if (!(radiusKm > 0 && radiusKm <= CourtGeoIndex.MAX_RADIUS_KM)) {
+            throw new BadRequestException("Bán kính phải lớn hơn 0 và tối đa "
+                    + (int) CourtGeoIndex.MAX_RADIUS_KM + " km");
+        }
+        if (limit < 1 || limit > MAX_NEARBY_RESULTS) {
+            throw new BadRequestException("Số kết quả phải từ 1 đến " + MAX_NEARBY_RESULTS);
+        }
+
+        List<CourtGeoIndex.Hit> hits = courtGeoIndex.within(lat, lng, radiusKm);
+        if (available != null) {
+            hits = filterAvailable(hits, date != null ? date : LocalDate.now(), available);
+        }
+        if (hits.size() > limit) {
+            hits = hits.subList(0, limit);
+        }
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Court> courts = courtRepository.findAllWithOwnerByIdIn(
+                        hits.stream().map(CourtGeoIndex.Hit::courtId).toList()).stream()
+                .collect(Collectors.toMap(Court::getId, Function.identity()));
+        List<CourtResponse> responses = new ArrayList<>();
+        for (CourtGeoIndex.Hit hit : hits) {
+            Court court = courts.get(hit.courtId());
+            if (court != null) {
+                CourtResponse response = mapToCourtResponse(court);
+                response.setDistanceKm(Math.round(hit.distanceKm() * 100) / 100.0);
+                responses.add(response);
+            }
+        }
+        return responses;
+    }
+
+    // Open at that time and with a free sub-court: two set queries for all candidates, none per court
+    private List<CourtGeoIndex.Hit> filterAvailable(List<CourtGeoIndex.Hit> hits, LocalDate date, LocalTime start) {
+        LocalTime end = start.plusMinutes(NEARBY_SLOT_MINUTES);
+        if (end.isBefore(start)) {
+            return List.of();
+        }
+        List<CourtGeoIndex.Hit> open = hits.stream()
+                .filter(hit -> !start.isBefore(LocalTime.parse(hit.openTime()))
+                        && !end.isAfter(LocalTime.parse(hit.closeTime())))
+                .toList();
+        if (open.isEmpty()) {
+            return open;
+        }
+
+        List<Long> ids = open.stream().map(CourtGeoIndex.Hit::courtId).toList();
+        Map<Long, Set<Integer>> busy = new HashMap<>();
+        for (BusyCourtNumber taken : bookingRepository.findBusyCourtNumbers(ids, date, start, end)) {
+            busy.computeIfAbsent(taken.getCourtId(), id -> new HashSet<>()).add(taken.getCourtNumber());
+        }
+        for (BusyCourtNumber taken : timeSlotRepository.findBusyCourtNumbers(ids, date, start, end)) {
+            busy.computeIfAbsent(taken.getCourtId(), id -> new HashSet<>()).add(taken.getCourtNumber());
+        }
+        return open.stream()
+                .filter(hit -> busy.getOrDefault(hit.courtId(), Set.of()).size() < hit.numberOfCourts())
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<CourtResponse> getCourtsByOwner(Long ownerId) {
         User owner = userRepository.findById(ownerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy chủ sân"));
@@ -139,6 +328,11 @@ public class CourtServiceImpl implements CourtService {
         }
 
         courtRepository.delete(court);
+        auditLog.adminAction("court.delete", "court:" + id, null);
+        occupancyIndex.evictCourt(id);
+        courtQueryCache.evictCourt(id);
+        courtSearchIndex.remove(id);
+        courtGeoIndex.remove(id);
     }
 
     @Override
@@ -150,38 +344,120 @@ public class CourtServiceImpl implements CourtService {
             throw new UnauthorizedException("Bạn không có quyền cập nhật trạng thái sân này");
         }
 
+        Court.CourtStatus previousStatus = court.getStatus();
         court.setStatus(Court.CourtStatus.valueOf(status.toUpperCase()));
         courtRepository.save(court);
+        auditLog.adminAction("court.status", "court:" + id, previousStatus + "->" + court.getStatus());
+        courtQueryCache.evictCourt(id);
+        courtSearchIndex.index(court);
+        courtGeoIndex.index(court);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AvailabilityResponse getCourtAvailability(Long id, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("Ngày kết thúc phải sau ngày bắt đầu");
+        }
+        long dayCount = ChronoUnit.DAYS.between(from, to) + 1;
+        if (dayCount > MAX_AVAILABILITY_DAYS) {
+            throw new BadRequestException("Chỉ xem được tối đa " + MAX_AVAILABILITY_DAYS + " ngày");
+        }
+
+        Court court = courtRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy sân"));
+
+        int openMinute = toMinute(LocalTime.parse(court.getOpenTime()));
+        int closeMinute = toMinute(LocalTime.parse(court.getCloseTime()));
+        int units = Math.max(0, (closeMinute - openMinute + OccupancyIndex.UNIT_MINUTES - 1)
+                / OccupancyIndex.UNIT_MINUTES);
+        int numberOfCourts = court.getNumberOfCourts();
+
+        // One row of units per (day, sub-court), everything starts free
+        Map<LocalDate, char[][]> grid = new HashMap<>();
+        for (int d = 0; d < dayCount; d++) {
+            char[][] rows = new char[numberOfCourts][units];
+            for (char[] row : rows) {
+                Arrays.fill(row, '0');
+            }
+            grid.put(from.plusDays(d), rows);
+        }
+
+        for (BookingSlot slot : bookingRepository.findActiveSlots(id, from, to)) {
+            markUnits(grid.get(slot.getBookingDate()), slot.getCourtNumber(),
+                    toMinute(slot.getStartTime()) - openMinute,
+                    toMinute(slot.getEndTime()) - openMinute, '1');
+        }
+
+        for (TimeSlot slot : timeSlotRepository.findUnavailableSlots(id, from, to)) {
+            markUnits(grid.get(slot.getDate()), slot.getCourtNumber(),
+                    toMinute(slot.getStartTime()) - openMinute,
+                    toMinute(slot.getEndTime()) - openMinute,
+                    slot.getStatus() == TimeSlot.SlotStatus.BLOCKED ? '2' : '1');
+        }
+
+        List<AvailabilityResponse.DayAvailability> days = new ArrayList<>();
+        for (int d = 0; d < dayCount; d++) {
+            LocalDate date = from.plusDays(d);
+            days.add(AvailabilityResponse.DayAvailability.builder()
+                    .date(date)
+                    .courts(Arrays.stream(grid.get(date)).map(String::new).collect(Collectors.toList()))
+                    .build());
+        }
+
+        return AvailabilityResponse.builder()
+                .courtId(court.getId())
+                .openTime(court.getOpenTime())
+                .closeTime(court.getCloseTime())
+                .slotMinutes(OccupancyIndex.UNIT_MINUTES)
+                .numberOfCourts(numberOfCourts)
+                .days(days)
+                .build();
+    }
+
+    private void markUnits(char[][] rows, Integer courtNumber, int startOffset, int endOffset, char state) {
+        if (rows == null || courtNumber == null || courtNumber < 1 || courtNumber > rows.length) {
+            return;
+        }
+        char[] row = rows[courtNumber - 1];
+        int fromUnit = Math.max(0, Math.floorDiv(startOffset, OccupancyIndex.UNIT_MINUTES));
+        int toUnit = Math.min(row.length,
+                Math.floorDiv(endOffset + OccupancyIndex.UNIT_MINUTES - 1, OccupancyIndex.UNIT_MINUTES));
+        for (int unit = fromUnit; unit < toUnit; unit++) {
+            // Blocked wins over booked when both cover a unit
+            if (row[unit] != '2') {
+                row[unit] = state;
+            }
+        }
+    }
+
+    // Immutable copy for the converter's dirty check; a JSON null element would fail List.copyOf
+    private static List<String> withoutNulls(List<String> values) {
+        return values.stream().filter(Objects::nonNull).toList();
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
     }
 
     private CourtResponse mapToCourtResponse(Court court) {
-        CourtResponse response = CourtResponse.builder()
+        return CourtResponse.builder()
                 .id(court.getId())
                 .name(court.getName())
                 .address(court.getAddress())
                 .description(court.getDescription())
                 .pricePerHour(court.getPricePerHour())
                 .numberOfCourts(court.getNumberOfCourts())
+                .latitude(court.getLatitude())
+                .longitude(court.getLongitude())
                 .openTime(court.getOpenTime())
                 .closeTime(court.getCloseTime())
                 .status(court.getStatus().name())
                 .ownerId(court.getOwner().getId())
                 .ownerName(court.getOwner().getFullName())
+                .facilities(court.getFacilities())
+                .images(court.getImages())
                 .createdAt(court.getCreatedAt())
                 .build();
-
-        // Convert JSON String to List
-        try {
-            if (court.getFacilities() != null) {
-                response.setFacilities(objectMapper.readValue(court.getFacilities(), List.class));
-            }
-            if (court.getImages() != null) {
-                response.setImages(objectMapper.readValue(court.getImages(), List.class));
-            }
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Lỗi xử lý dữ liệu", e);
-        }
-
-        return response;
     }
 }
@@ -1,10 +1,14 @@
 package com.badminton.service.impl;
 
+import com.badminton.audit.AuditLog;
+import com.badminton.cache.CourtQueryCache;
+import com.badminton.cache.PrincipalCache;
 import com.badminton.dto.request.UpdateProfileRequest;
 import com.badminton.dto.response.UserResponse;
 import com.badminton.entity.User;
 import com.badminton.exception.ResourceNotFoundException;
 import com.badminton.repository.UserRepository;
+import com.badminton.security.TokenVersionRegistry;
 import com.badminton.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,6 +23,10 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final CourtQueryCache courtQueryCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final AuditLog auditLog;
 
     @Override
     public UserResponse getUserById(Long id) {
@@ -42,6 +50,11 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(updatedUser.getEmail());
+        if (updatedUser.getRole() != User.UserRole.USER) {
+            // Owners and admins may own courts, whose cached details show their name
+            courtQueryCache.evictOwner(updatedUser.getId());
+        }
         return mapToUserResponse(updatedUser);
     }
 
@@ -57,6 +70,9 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy người dùng"));
         userRepository.delete(user);
+        auditLog.adminAction("user.delete", "user:" + id, null);
+        principalCache.invalidate(user.getEmail());
+        tokenVersionRegistry.revokeDeleted(user.getId());
     }
 
     @Override
@@ -0,0 +1,63 @@
+package com.badminton;
+
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.repository.CourtRepository;
+import com.badminton.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Users and courts shared by the integration tests. Every test class runs
+ * against the same embedded database, so emails come from a per-class tag and
+ * phone numbers from a counter, and neither can collide across classes.
+ */
+public final class TestData {
+
+    // 08xxxxxxxx: outside the 09 numbers the benchmarks seed
+    private static final AtomicInteger PHONES = new AtomicInteger();
+
+    private TestData() {
+    }
+
+    /**
+     * Unsaved user "Test {tag}" with email {tag}@test.vn, for tests that persist through an EntityManager.
+     */
+    public static User newUser(String tag, User.UserRole role) {
+        User user = new User();
+        user.setFullName("Test " + tag);
+        user.setEmail(tag + "@test.vn");
+        user.setPhone(String.format("08%08d", PHONES.incrementAndGet()));
+        user.setPassword("secret");
+        user.setRole(role);
+        return user;
+    }
+
+    public static User user(UserRepository userRepository, String tag, User.UserRole role) {
+        return userRepository.save(newUser(tag, role));
+    }
+
+    public static User owner(UserRepository userRepository, String tag) {
+        return user(userRepository, tag, User.UserRole.OWNER);
+    }
+
+    /**
+     * Unsaved active court with 2 sub-courts open 06:00-22:00 at 100000 per hour.
+     */
+    public static Court newCourt(String name, User owner) {
+        Court court = new Court();
+        court.setName(name);
+        court.setAddress("1 Test Street");
+        court.setPricePerHour(new BigDecimal("100000"));
+        court.setNumberOfCourts(2);
+        court.setOpenTime("06:00");
+        court.setCloseTime("22:00");
+        court.setOwner(owner);
+        return court;
+    }
+
+    public static Court court(CourtRepository courtRepository, String name, User owner) {
+        return courtRepository.save(newCourt(name, owner));
+    }
+}
@@ -0,0 +1,106 @@
+package com.badminton.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ringBufferHandsOverEveryEventOnceUnderConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 10_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        while (seen.size() < producers * perProducer) {
+            batch.clear();
+            buffer.drainTo(batch, 256);
+            for (Integer value : batch) {
+                assertTrue(seen.add(value), "duplicate " + value);
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void fullBufferDropsInsteadOfBlocking() {
+        MpscRingBuffer<String> buffer = new MpscRingBuffer<>(2);
+        assertTrue(buffer.offer("a"));
+        assertTrue(buffer.offer("b"));
+        assertFalse(buffer.offer("c"));
+
+        // Writer not started, so the buffer fills up and the rest is counted as dropped
+        AuditLog auditLog = new AuditLog(true, dir.resolve("audit.log").toString(), DataSize.ofMegabytes(1),
+                2, 4, Duration.ofMillis(10), new SimpleMeterRegistry());
+        for (int i = 0; i < 10; i++) {
+            auditLog.authFailure("jwt.invalid_signature", null);
+        }
+        assertEquals(6, auditLog.getDropped());
+    }
+
+    @Test
+    void writerAppendsJsonLinesAndRollsBySize() throws Exception {
+        Path file = dir.resolve("audit.log");
+        AuditLog auditLog = new AuditLog(true, file.toString(), DataSize.ofBytes(200), 2, 64,
+                Duration.ofMillis(10), new SimpleMeterRegistry());
+        auditLog.start();
+        auditLog.authFailure("login.bad_credentials", "a@test.vn");
+        auditLog.bookingTransition(7L, null, Status.CONFIRMED);
+        auditLog.adminAction("court.delete", "court:3", null);
+        auditLog.stop();
+
+        assertEquals(3, auditLog.getWritten());
+        List<String> lines = new ArrayList<>();
+        for (Path path : new Path[] {dir.resolve("audit.log.2"), dir.resolve("audit.log.1"), file}) {
+            if (Files.exists(path)) {
+                lines.addAll(Files.readAllLines(path));
+            }
+        }
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"ts\":\""));
+        assertTrue(lines.get(0).contains("\"type\":\"auth.failure\",\"action\":\"login.bad_credentials\""));
+        assertTrue(lines.get(1).contains("\"action\":\"NEW->CONFIRMED\",\"target\":\"booking:7\""));
+        assertTrue(lines.get(2).contains("\"type\":\"admin.action\",\"action\":\"court.delete\""));
+    }
+
+    private enum Status {
+        CONFIRMED
+    }
+}
@@ -0,0 +1,118 @@
+package com.badminton.cache;
+
+import com.badminton.dto.response.CourtResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CourtQueryCacheTest {
+
+    private CourtQueryCache cache;
+    private SimpleMeterRegistry registry;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CourtQueryCache(new ObjectMapper(), 100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+        registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+    }
+
+    @Test
+    void hitServesPreSerializedJson() {
+        RawValue first = cache.getPage("key", () -> load(List.of("a")));
+        RawValue second = cache.getPage("key", () -> load(List.of("b")));
+
+        assertEquals("[\"a\"]", first.rawValue());
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("court.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("court.cache.requests").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void evictingOneCourtKeepsOtherDetailsButDropsPages() {
+        cache.getCourt(1L, () -> court(1L, "one", 10L));
+        cache.getCourt(2L, () -> court(2L, "two", 10L));
+        cache.getPage(CourtQueryCache.listKey(PageRequest.of(0, 10, Sort.by("createdAt").descending())),
+                () -> load("page"));
+
+        cache.evictCourt(1L);
+
+        cache.getCourt(1L, () -> court(1L, "one", 10L));
+        cache.getCourt(2L, () -> court(2L, "two", 10L));
+        cache.getPage(CourtQueryCache.listKey(PageRequest.of(0, 10, Sort.by("createdAt").descending())),
+                () -> load("page"));
+        assertEquals(5, loads.get());
+        assertEquals(2.0, registry.get("court.cache.evictions").functionCounter().count());
+    }
+
+    @Test
+    void searchKeyIgnoresCaseAndDecimalScale() {
+        cache.getPage(CourtQueryCache.searchKey("Sân", null, new BigDecimal("100000.00"), null,
+                        PageRequest.of(0, 10)),
+                () -> load("page"));
+        cache.getPage(CourtQueryCache.searchKey("sân", null, new BigDecimal("100000"), null,
+                        PageRequest.of(0, 10)),
+                () -> load("page"));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void loadRacingWithWriteIsNotCached() {
+        cache.getCourt(1L, () -> {
+            cache.evictCourt(1L);
+            return court(1L, "stale", 10L);
+        });
+        cache.getCourt(1L, () -> court(1L, "fresh", 10L));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void etagFollowsTheCachedBody() {
+        CourtQueryCache.CourtDetail first = cache.getCourt(1L, () -> court(1L, "one", 10L));
+        assertEquals(first, cache.getCourt(1L, () -> court(1L, "renamed", 10L)));
+
+        cache.evictCourt(1L);
+        CourtQueryCache.CourtDetail renamed = cache.getCourt(1L, () -> court(1L, "renamed", 10L));
+        assertNotEquals(first.etag(), renamed.etag());
+        assertEquals(renamed.etag(), cache.getCourt(1L, () -> court(1L, "renamed", 10L)).etag());
+    }
+
+    @Test
+    void evictingAnOwnerDropsOnlyTheirCourts() {
+        cache.getCourt(1L, () -> court(1L, "one", 10L));
+        cache.getCourt(2L, () -> court(2L, "two", 20L));
+
+        cache.evictOwner(10L);
+
+        cache.getCourt(1L, () -> court(1L, "one", 10L));
+        cache.getCourt(2L, () -> court(2L, "two", 20L));
+        assertEquals(3, loads.get());
+    }
+
+    private CourtResponse court(Long id, String name, Long ownerId) {
+        loads.incrementAndGet();
+        return CourtResponse.builder().id(id).name(name).ownerId(ownerId).build();
+    }
+
+    private Object load(Object value) {
+        loads.incrementAndGet();
+        return value;
+    }
+}
@@ -0,0 +1,128 @@
+package com.badminton.cache;
+
+import com.badminton.entity.Booking;
+import com.badminton.entity.Court;
+import com.badminton.repository.BookingRepository;
+import com.badminton.repository.projection.BookingTimeRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OccupancyIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+
+    private BookingRepository bookingRepository;
+    private OccupancyIndex index;
+    private Court court;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new OccupancyIndex(bookingRepository, 100);
+
+        court = new Court();
+        court.setId(1L);
+        court.setOpenTime("06:00");
+        court.setCloseTime("22:00");
+        court.setNumberOfCourts(2);
+    }
+
+    @Test
+    void coldDayIsLoadedOnceThenAnsweredFromMemory() {
+        when(bookingRepository.findActiveTimeRanges(1L, DATE, 1))
+                .thenReturn(List.of(range("08:00", "10:00")));
+
+        assertEquals(OccupancyIndex.Answer.OCCUPIED, index.check(court, DATE, 1, time("09:00"), time("11:00")));
+        assertEquals(OccupancyIndex.Answer.FREE, index.check(court, DATE, 1, time("10:00"), time("12:00")));
+        assertEquals(OccupancyIndex.Answer.FREE, index.check(court, DATE, 1, time("06:00"), time("08:00")));
+
+        verify(bookingRepository, times(1)).findActiveTimeRanges(1L, DATE, 1);
+    }
+
+    @Test
+    void partialUnitOverlapIsUnknown() {
+        when(bookingRepository.findActiveTimeRanges(1L, DATE, 1))
+                .thenReturn(List.of(range("08:10", "09:00")));
+
+        assertEquals(OccupancyIndex.Answer.UNKNOWN, index.check(court, DATE, 1, time("07:30"), time("08:05")));
+        assertEquals(OccupancyIndex.Answer.OCCUPIED, index.check(court, DATE, 1, time("08:00"), time("08:15")));
+    }
+
+    @Test
+    void occupyAndReleaseKeepIndexCoherent() {
+        when(bookingRepository.findActiveTimeRanges(any(), any(), eq(1))).thenReturn(List.of());
+        assertEquals(OccupancyIndex.Answer.FREE, index.check(court, DATE, 1, time("18:00"), time("19:00")));
+
+        Booking booking = booking("18:00", "19:00");
+        index.occupy(booking);
+        assertEquals(OccupancyIndex.Answer.OCCUPIED, index.check(court, DATE, 1, time("18:30"), time("19:30")));
+
+        index.release(booking);
+        assertEquals(OccupancyIndex.Answer.FREE, index.check(court, DATE, 1, time("18:30"), time("19:30")));
+        verify(bookingRepository, times(1)).findActiveTimeRanges(1L, DATE, 1);
+    }
+
+    @Test
+    void releasingUnalignedBookingForcesReload() {
+        when(bookingRepository.findActiveTimeRanges(1L, DATE, 1)).thenReturn(List.of());
+        index.check(court, DATE, 1, time("18:00"), time("19:00"));
+
+        Booking booking = booking("18:05", "19:00");
+        index.occupy(booking);
+        index.release(booking);
+        index.check(court, DATE, 1, time("18:00"), time("19:00"));
+
+        verify(bookingRepository, times(2)).findActiveTimeRanges(1L, DATE, 1);
+    }
+
+    @Test
+    void changedOpeningHoursInvalidateBitmap() {
+        when(bookingRepository.findActiveTimeRanges(1L, DATE, 1)).thenReturn(List.of());
+        index.check(court, DATE, 1, time("18:00"), time("19:00"));
+
+        court.setOpenTime("07:00");
+        index.check(court, DATE, 1, time("18:00"), time("19:00"));
+
+        verify(bookingRepository, times(2)).findActiveTimeRanges(1L, DATE, 1);
+    }
+
+    private Booking booking(String start, String end) {
+        Booking booking = new Booking();
+        booking.setCourt(court);
+        booking.setBookingDate(DATE);
+        booking.setCourtNumber(1);
+        booking.setStartTime(time(start));
+        booking.setEndTime(time(end));
+        return booking;
+    }
+
+    private static BookingTimeRange range(String start, String end) {
+        return new BookingTimeRange() {
+            @Override
+            public LocalTime getStartTime() {
+                return time(start);
+            }
+
+            @Override
+            public LocalTime getEndTime() {
+                return time(end);
+            }
+        };
+    }
+
+    private static LocalTime time(String value) {
+        return LocalTime.parse(value);
+    }
+}
@@ -0,0 +1,87 @@
+package com.badminton.config;
+
+import com.badminton.TestData;
+import com.badminton.entity.User;
+import com.badminton.repository.UserRepository;
+import com.badminton.security.JwtUtil;
+import com.badminton.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pool;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=250"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConnectionPoolTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = TestData.user(userRepository, "pool-admin", User.UserRole.ADMIN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(admin.getId());
+    }
+
+    @Test
+    void poolMetricsAreExposedToAdminsOnly() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/hikaricp.connections.pending"))
+                .andExpect(status().isUnauthorized());
+
+        String token = jwtUtil.generateToken(UserPrincipal.from(admin));
+        for (String metric : new String[] {"hikaricp.connections.active", "hikaricp.connections.idle",
+                "hikaricp.connections.pending", "hikaricp.connections.acquire"}) {
+            mockMvc.perform(get("/actuator/metrics/" + metric)
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value(metric));
+        }
+    }
+
+    @Test
+    void exhaustedPoolFailsFastWithServiceUnavailable() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            mockMvc.perform(get("/courts/1/availability")
+                            .param("from", LocalDate.now().toString())
+                            .param("to", LocalDate.now().toString()))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.badminton.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Production layout: actuator on its own port instead of the application's
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.server.port=0")
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class ManagementPortTest {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void metricsAreOnlyServedOnTheManagementPort() throws Exception {
+        assertEquals(404, get("http://localhost:" + port + "/api/actuator/prometheus").statusCode());
+        assertEquals(404, get("http://localhost:" + port + "/api/actuator/health").statusCode());
+
+        HttpResponse<String> scrape = get("http://localhost:" + managementPort + "/actuator/prometheus");
+        assertEquals(200, scrape.statusCode());
+        assertTrue(scrape.body().contains("hikaricp_connections"));
+        assertEquals(200, get("http://localhost:" + managementPort + "/actuator/health").statusCode());
+        assertEquals(401, get("http://localhost:" + managementPort + "/actuator/metrics").statusCode());
+    }
+
+    private HttpResponse<String> get(String url) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
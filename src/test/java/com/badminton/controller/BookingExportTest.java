@@ -0,0 +1,145 @@
+package com.badminton.controller;
+
+import com.badminton.TestData;
+import com.badminton.entity.Booking;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.repository.BookingRepository;
+import com.badminton.repository.CourtRepository;
+import com.badminton.repository.UserRepository;
+import com.badminton.security.JwtUtil;
+import com.badminton.security.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingExportTest {
+
+    private static final int BOOKINGS = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private Court court;
+    private LocalDate firstDay;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        owner = TestData.owner(userRepository, "export-owner");
+        court = TestData.court(courtRepository, "Sân Export", owner);
+
+        firstDay = LocalDate.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setUser(owner);
+            booking.setCourt(court);
+            booking.setBookingDate(firstDay.plusDays(i));
+            booking.setCourtNumber(1);
+            booking.setStartTime(LocalTime.of(18, 0));
+            booking.setEndTime(LocalTime.of(19, 0));
+            booking.setTotalPrice(new BigDecimal("100000"));
+            booking.setNotes(i == 0 ? "Nhóm \"A\", sân 1" : null);
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+
+        token = jwtUtil.generateToken(UserPrincipal.from(owner));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findByCourt(court));
+        courtRepository.deleteById(court.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void csvStreamsEveryRowWithoutPerRowQueries() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MockHttpServletResponse response = mockMvc.perform(get("/bookings/export")
+                        .param("courtId", court.getId().toString())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(BOOKINGS + 1, lines.length);
+        assertTrue(lines[0].startsWith("﻿id,bookingDate"));
+        assertTrue(lines[1].contains(",\"Nhóm \"\"A\"\", sân 1\","), lines[1]);
+        assertTrue(response.getHeader("Content-Disposition").contains("bookings-court-" + court.getId() + ".csv"));
+        // court access check and the export cursor, however many rows
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void ndjsonHonoursTheDateRange() throws Exception {
+        String body = mockMvc.perform(get("/bookings/export")
+                        .param("courtId", court.getId().toString())
+                        .param("from", firstDay.plusDays(10).toString())
+                        .param("to", firstDay.plusDays(14).toString())
+                        .param("format", "ndjson")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals(5, lines.length);
+        LocalDate first = firstDay.plusDays(10);
+        String date = "[" + first.getYear() + "," + first.getMonthValue() + "," + first.getDayOfMonth() + "]";
+        assertTrue(lines[0].contains("\"bookingDate\":" + date), lines[0]);
+    }
+
+    @Test
+    void invalidParametersAreRejectedBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/bookings/export")
+                        .param("courtId", court.getId().toString())
+                        .param("format", "xlsx")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+}
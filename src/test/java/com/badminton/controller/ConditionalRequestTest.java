@@ -0,0 +1,142 @@
+package com.badminton.controller;
+
+import com.badminton.TestData;
+import com.badminton.dto.request.UpdateProfileRequest;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.repository.CourtRepository;
+import com.badminton.repository.UserRepository;
+import com.badminton.service.CourtService;
+import com.badminton.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private CourtService courtService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private Court court;
+
+    @BeforeEach
+    void setUp() {
+        owner = TestData.owner(userRepository, "etag-owner");
+        court = TestData.court(courtRepository, "Sân ETag", owner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        courtRepository.deleteById(court.getId());
+        userRepository.deleteById(owner.getId());
+        userRepository.findByEmail("etag-user@test.vn").ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void courtDetailAnswersNotModifiedUntilTheCourtChanges() throws Exception {
+        MockHttpServletResponse first = mockMvc.perform(get("/courts/" + court.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        String etag = first.getHeader("ETag");
+        assertNotNull(etag);
+        assertEquals(1, first.getHeaders("ETag").size());
+
+        mockMvc.perform(get("/courts/" + court.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        courtService.updateCourtStatus(court.getId(), "MAINTENANCE", owner.getId());
+
+        String changed = mockMvc.perform(get("/courts/" + court.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void courtDetailChangesWhenTheOwnerRenames() throws Exception {
+        String etag = mockMvc.perform(get("/courts/" + court.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        userService.updateProfile(owner.getId(), new UpdateProfileRequest("ETag Owner Mới", null));
+
+        MockHttpServletResponse changed = mockMvc.perform(get("/courts/" + court.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertNotEquals(etag, changed.getHeader("ETag"));
+        assertTrue(changed.getContentAsString(StandardCharsets.UTF_8).contains("ETag Owner Mới"));
+    }
+
+    @Test
+    void myBookingsRevalidationOnlyRunsTheVersionQuery() throws Exception {
+        String body = "{\"fullName\":\"ETag User\",\"email\":\"etag-user@test.vn\","
+                + "\"phone\":\"0933333333\",\"password\":\"secret123\"}";
+        String response = mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(response).path("data").path("token").asText();
+
+        String etag = mockMvc.perform(get("/bookings/my-bookings").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/bookings/my-bookings")
+                        .header("Authorization", "Bearer " + token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,25 @@
+package com.badminton.entity.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StringListJsonConverterTest {
+
+    private final StringListJsonConverter converter = new StringListJsonConverter();
+
+    @Test
+    void roundTripsAndKeepsNullElementsOfStoredLists() {
+        List<String> facilities = converter.convertToEntityAttribute("[\"Parking\",null,\"Wifi\"]");
+
+        assertEquals(Arrays.asList("Parking", null, "Wifi"), facilities);
+        assertThrows(UnsupportedOperationException.class, () -> facilities.add("Shower"));
+        assertEquals("[\"Parking\",null,\"Wifi\"]", converter.convertToDatabaseColumn(facilities));
+        assertNull(converter.convertToEntityAttribute(" "));
+    }
+}
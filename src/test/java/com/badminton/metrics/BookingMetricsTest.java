@@ -0,0 +1,109 @@
+package com.badminton.metrics;
+
+import com.badminton.TestData;
+import com.badminton.dto.request.BookingRequest;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.exception.BookingConflictException;
+import com.badminton.repository.BookingRepository;
+import com.badminton.repository.CourtRepository;
+import com.badminton.repository.UserRepository;
+import com.badminton.service.BookingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Tests get a simple registry unless metrics export is switched back on
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class BookingMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private Court court;
+
+    @BeforeEach
+    void setUp() {
+        owner = TestData.owner(userRepository, "metrics-owner");
+        court = TestData.court(courtRepository, "Sân Metrics", owner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findByCourt(court));
+        courtRepository.deleteById(court.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void createBookingRecordsLatencyConflictsAndRejections() throws Exception {
+        double created = count("booking.create", "outcome", "created");
+        double conflicts = meterRegistry.counter("booking.conflicts", "operation", "create").count();
+        double rejections = meterRegistry.counter("booking.rejections", "operation", "create",
+                "reason", "conflict").count();
+
+        BookingRequest request = new BookingRequest();
+        request.setCourtId(court.getId());
+        request.setBookingDate(LocalDate.now().plusDays(2));
+        request.setStartTime("18:00");
+        request.setEndTime("19:00");
+        request.setCourtNumber(1);
+
+        bookingService.createBooking(request, owner.getId());
+        assertThrows(BookingConflictException.class, () -> bookingService.createBooking(request, owner.getId()));
+
+        assertEquals(created + 1, count("booking.create", "outcome", "created"));
+        assertEquals(conflicts + 1, meterRegistry.counter("booking.conflicts", "operation", "create").count());
+        assertEquals(rejections + 1, meterRegistry.counter("booking.rejections", "operation", "create",
+                "reason", "conflict").count());
+        assertTrue(meterRegistry.find("booking.conflict.check").timers().stream()
+                .mapToLong(timer -> timer.count()).sum() >= 2);
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(scrape.contains("booking_create_seconds_bucket{outcome=\"created\""));
+        assertTrue(scrape.contains("booking_conflict_check_seconds_bucket{decided_by="));
+        assertTrue(scrape.contains("booking_rejections_total{operation=\"create\",reason=\"conflict\""));
+        assertTrue(scrape.contains("court_cache_requests_total"));
+    }
+
+    private long count(String timer, String tag, String value) {
+        var found = meterRegistry.find(timer).tag(tag, value).timer();
+        return found != null ? found.count() : 0;
+    }
+}
@@ -0,0 +1,119 @@
+package com.badminton.metrics;
+
+import com.badminton.TestData;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.repository.CourtRepository;
+import com.badminton.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Budget of one statement and every statement "slow", so both warnings fire
+@SpringBootTest(properties = {
+        "sql.trace.response-header=true",
+        "sql.trace.statement-budget=1",
+        "sql.trace.slow-query-threshold=0ms",
+        "sql.trace.slow-query-bind-sample-rate=1.0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class SqlTraceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private Court court;
+
+    @BeforeEach
+    void setUp() {
+        owner = TestData.owner(userRepository, "trace-owner");
+        court = TestData.court(courtRepository, "Sân Trace", owner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        courtRepository.deleteById(court.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void requestTotalsMatchTheStatementsHibernateIssued(CapturedOutput output) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String header = mockMvc.perform(get("/courts/" + court.getId() + "/availability")
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(SqlTraceResponseAdvice.HEADER);
+
+        assertNotNull(header);
+        assertTrue(header.startsWith("statements=" + statistics.getPrepareStatementCount() + ";rows="), header);
+        assertTrue(header.endsWith(";over-budget"), header);
+
+        assertTrue(output.getOut().contains("over SQL budget of 1 statements"));
+        assertTrue(output.getOut().contains("Slow SQL"));
+        assertTrue(output.getOut().contains("binds [1=Long"));
+    }
+
+    @Test
+    void slowQueryBindsNeverLogPasswordValues(CapturedOutput output) {
+        User user = TestData.newUser("trace-secret", User.UserRole.USER);
+        user.setPassword("$2a$10$traceSecretHashThatMustNotBeLogged");
+        user = userRepository.save(user);
+        try {
+            assertTrue(output.getOut().contains("Slow SQL"));
+            assertTrue(output.getOut().contains("String(" + user.getPassword().length() + ")"));
+            assertFalse(output.getOut().contains("traceSecretHash"));
+            assertFalse(output.getOut().contains(user.getEmail()));
+        } finally {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void summaryCountsStatementsRowsAndBudget() {
+        SqlTrace trace = SqlTrace.begin(1);
+        try {
+            trace.statement(1_500_000, 0);
+            trace.rows(3);
+            assertEquals("statements=1;rows=3;jdbc-ms=1.5", trace.summary());
+            trace.statement(500_000, 2);
+            assertEquals("statements=2;rows=5;jdbc-ms=2.0;over-budget", trace.summary());
+        } finally {
+            SqlTrace.end();
+        }
+    }
+}
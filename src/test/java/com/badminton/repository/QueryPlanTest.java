@@ -0,0 +1,228 @@
+package com.badminton.repository;
+
+import com.badminton.TestData;
+import com.badminton.entity.Booking;
+import com.badminton.entity.Court;
+import com.badminton.entity.TimeSlot;
+import com.badminton.entity.User;
+import com.badminton.repository.projection.BookingView;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the hot repository queries, captures the SQL Hibernate generates for them and
+ * checks H2's EXPLAIN output, so a dropped index or a query that stops using it fails
+ * the build. H2 costs indexes by column statistics, so the fixture is committed and
+ * analyzed once rather than rolled back per test.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.badminton.repository.QueryPlanTest$SqlCapture")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Court> courts = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        for (int i = 0; i < 4; i++) {
+            User user = TestData.owner(userRepository, "plan-user-" + i);
+            users.add(user);
+
+            Court court = TestData.newCourt("Sân Plan " + i, user);
+            court.setStatus(Court.CourtStatus.values()[i % Court.CourtStatus.values().length]);
+            courts.add(courtRepository.save(court));
+        }
+
+        List<Booking> bookings = new ArrayList<>();
+        List<TimeSlot> slots = new ArrayList<>();
+        Booking.BookingStatus[] statuses = Booking.BookingStatus.values();
+        for (int i = 0; i < courts.size(); i++) {
+            for (int day = 0; day < 30; day++) {
+                for (int number = 1; number <= 2; number++) {
+                    Booking booking = new Booking();
+                    booking.setUser(users.get((i + day) % users.size()));
+                    booking.setCourt(courts.get(i));
+                    booking.setBookingDate(DAY.plusDays(day));
+                    booking.setCourtNumber(number);
+                    booking.setStartTime(LocalTime.of(6 + day % 12, 0));
+                    booking.setEndTime(LocalTime.of(7 + day % 12, 0));
+                    booking.setTotalPrice(new BigDecimal("100000"));
+                    booking.setStatus(statuses[(day + number) % statuses.length]);
+                    bookings.add(booking);
+
+                    TimeSlot slot = new TimeSlot();
+                    slot.setCourt(courts.get(i));
+                    slot.setDate(DAY.plusDays(day));
+                    slot.setCourtNumber(number);
+                    slot.setStartTime(LocalTime.of(6 + day % 12, 0));
+                    slot.setEndTime(LocalTime.of(7 + day % 12, 0));
+                    slot.setStatus(TimeSlot.SlotStatus.values()[day % TimeSlot.SlotStatus.values().length]);
+                    slots.add(slot);
+                }
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        timeSlotRepository.saveAll(slots);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        for (Court court : courts) {
+            timeSlotRepository.deleteAll(timeSlotRepository.findAll().stream()
+                    .filter(slot -> slot.getCourt().getId().equals(court.getId())).toList());
+            bookingRepository.deleteAll(bookingRepository.findByCourt(court));
+            courtRepository.delete(court);
+        }
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void bookingSlotQueriesSeekTheSlotIndex() {
+        Long courtId = courts.get(0).getId();
+        LocalTime start = LocalTime.of(18, 0);
+        LocalTime end = LocalTime.of(20, 0);
+        assertPlans("idx_bookings_court_slot",
+                () -> bookingRepository.findConflictingBookings(courtId, DAY, 1, start, end),
+                () -> bookingRepository.existsConflictingBooking(courtId, DAY, 1, start, end),
+                () -> bookingRepository.findActiveTimeRanges(courtId, DAY, 1),
+                () -> bookingRepository.findActiveSlots(courtId, DAY, DAY.plusDays(7)),
+                () -> bookingRepository.findActiveSlotsOn(courtId, List.of(DAY, DAY.plusDays(7)), Set.of(1, 2)),
+                () -> {
+                    try (Stream<BookingView> rows = bookingRepository.streamViewsByCourtId(courtId, DAY, DAY.plusDays(7))) {
+                        rows.findFirst();
+                    }
+                });
+    }
+
+    @Test
+    void bookingListingsWalkTheCreatedAtIndexes() {
+        Long userId = users.get(0).getId();
+        assertPlans("idx_bookings_user_created",
+                () -> bookingRepository.findViewsByUserIdAfter(userId, NOW, Long.MAX_VALUE, PAGE));
+        assertPlans("idx_bookings_created",
+                () -> bookingRepository.findViewsAfter(NOW, Long.MAX_VALUE, PAGE));
+        // Offset pages and the owner listing only need to avoid scanning bookings
+        assertPlans(null,
+                () -> bookingRepository.findViewsByUserId(userId, PAGE),
+                () -> bookingRepository.findVersionByUserId(userId),
+                () -> bookingRepository.findViewsByCourtId(courts.get(0).getId()),
+                () -> bookingRepository.findViewsByCourtOwnerIdAfter(userId, NOW, Long.MAX_VALUE, PAGE));
+    }
+
+    @Test
+    void courtListingsUseTheStatusIndex() {
+        assertPlans("idx_courts_status_created",
+                () -> courtRepository.findByStatus(Court.CourtStatus.ACTIVE, PAGE),
+                () -> courtRepository.findByStatusAfter(Court.CourtStatus.ACTIVE, NOW, Long.MAX_VALUE, PAGE));
+    }
+
+    @Test
+    void timeSlotQueriesUseTheCourtDateIndex() {
+        Court court = courts.get(0);
+        assertPlans("idx_time_slots_court_date_status",
+                () -> timeSlotRepository.findAvailableSlots(court.getId(), DAY),
+                () -> timeSlotRepository.findUnavailableSlots(court.getId(), DAY, DAY.plusDays(7)),
+                () -> timeSlotRepository.findByCourtAndDate(court, DAY));
+    }
+
+    /**
+     * No SELECT issued by the queries may scan a whole table, and the main one must
+     * read through the expected index when one is given.
+     */
+    private void assertPlans(String index, Runnable... queries) {
+        for (Runnable query : queries) {
+            SqlCapture.STATEMENTS.clear();
+            transactionTemplate.executeWithoutResult(status -> query.run());
+            List<String> selects = SqlCapture.STATEMENTS.stream()
+                    .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                    .toList();
+            assertFalse(selects.isEmpty(), "no query captured");
+
+            for (String sql : selects) {
+                String plan = explain(sql);
+                assertFalse(plan.contains("tableScan"), "full scan:\n" + plan);
+                if (index != null && sql.equals(selects.get(0))) {
+                    assertTrue(plan.contains(index), "expected " + index + ":\n" + plan);
+                }
+            }
+        }
+    }
+
+    // Parameters are left null; H2 picks the plan from the predicates, not the values
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.badminton.search;
+
+import com.badminton.entity.Court;
+import com.badminton.repository.CourtRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourtGeoIndexTest {
+
+    // Hồ Hoàn Kiếm
+    private static final double LAT = 21.0288;
+    private static final double LNG = 105.8525;
+
+    private CourtGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        CourtRepository courtRepository = mock(CourtRepository.class);
+        when(courtRepository.findAllGeoDocuments()).thenReturn(List.of());
+        index = new CourtGeoIndex(courtRepository, Duration.ofHours(1));
+
+        index.index(court(1L, 21.0368, 105.8342));   // Ba Đình, ~2 km
+        index.index(court(2L, 21.0300, 105.8530));   // next door
+        index.index(court(3L, 20.9950, 105.8400));   // Hoàng Mai, ~4 km
+        index.index(court(4L, 10.7769, 106.7009));   // TP.HCM
+    }
+
+    @Test
+    void geohashMatchesTheReferenceEncoding() {
+        assertEquals("u4pru", CourtGeoIndex.geohash(57.64911, 10.40744));
+        assertEquals("w7er8", CourtGeoIndex.geohash(21.0288, 105.8525).substring(0, 5));
+    }
+
+    @Test
+    void returnsCourtsInsideTheRadiusNearestFirst() {
+        List<CourtGeoIndex.Hit> hits = index.within(LAT, LNG, 5);
+
+        assertEquals(List.of(2L, 1L, 3L), hits.stream().map(CourtGeoIndex.Hit::courtId).toList());
+        assertTrue(hits.get(0).distanceKm() < 0.2);
+        assertTrue(hits.get(2).distanceKm() < 5);
+        assertEquals(List.of(2L), index.within(LAT, LNG, 1).stream().map(CourtGeoIndex.Hit::courtId).toList());
+    }
+
+    @Test
+    void writesMoveOrDropCourts() {
+        Court moved = court(2L, 10.78, 106.70);
+        index.index(moved);
+        Court closed = court(1L, 21.0368, 105.8342);
+        closed.setStatus(Court.CourtStatus.INACTIVE);
+        index.index(closed);
+        index.remove(3L);
+
+        assertEquals(List.of(), index.within(LAT, LNG, 10));
+        assertEquals(List.of(4L, 2L), index.within(10.7769, 106.7009, 5).stream()
+                .map(CourtGeoIndex.Hit::courtId).toList());
+    }
+
+    private static Court court(Long id, double lat, double lng) {
+        Court court = new Court();
+        court.setId(id);
+        court.setLatitude(lat);
+        court.setLongitude(lng);
+        court.setOpenTime("06:00");
+        court.setCloseTime("22:00");
+        court.setNumberOfCourts(2);
+        court.setStatus(Court.CourtStatus.ACTIVE);
+        return court;
+    }
+}
@@ -0,0 +1,103 @@
+package com.badminton.search;
+
+import com.badminton.entity.Court;
+import com.badminton.repository.CourtRepository;
+import com.badminton.repository.projection.CourtSearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourtSearchIndexTest {
+
+    private CourtRepository courtRepository;
+    private CourtSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        courtRepository = mock(CourtRepository.class);
+        when(courtRepository.findAllSearchDocuments()).thenReturn(List.of());
+        index = new CourtSearchIndex(courtRepository, Duration.ofHours(1));
+
+        index.index(court(1L, "Sân Cầu Lông Đống Đa", "12 Tôn Đức Thắng, Hà Nội", "120000", 1));
+        index.index(court(2L, "CLB Cầu lông Thanh Xuân", "5 Nguyễn Trãi, Hà Nội", "80000", 2));
+        index.index(court(3L, "Đa Năng Arena", "1 Lê Lợi, Quận 1, TP.HCM", "150000", 3));
+    }
+
+    @Test
+    void matchesIgnoringAccentsAndCase() {
+        assertEquals(List.of(1L), index.search("dong da", null, null, null));
+        assertEquals(List.of(2L, 1L), index.search("CAU LONG", null, null, null));
+        assertEquals(List.of(2L), index.search(null, "nguyen trai", null, null));
+        assertEquals(List.of(), index.search("cầu lông", "quận 1", null, null));
+    }
+
+    @Test
+    void ranksWholeWordAndNameMatchesFirst() {
+        // "da" is a word of court 3's name prefix, a word in court 1 and only a substring elsewhere
+        assertEquals(List.of(3L, 1L), index.search("da", null, null, null));
+        assertEquals(List.of(2L, 1L), index.search("lo", "ha noi", null, null));
+    }
+
+    @Test
+    void filtersByPriceAndStatus() {
+        assertEquals(List.of(2L, 1L), index.search("cau", null, null, new BigDecimal("120000")));
+        assertEquals(List.of(1L), index.search("cau", null, new BigDecimal("100000"), null));
+
+        Court closed = court(1L, "Sân Cầu Lông Đống Đa", "12 Tôn Đức Thắng, Hà Nội", "120000", 1);
+        closed.setStatus(Court.CourtStatus.MAINTENANCE);
+        index.index(closed);
+        assertEquals(List.of(2L), index.search("cau long", null, null, null));
+
+        index.remove(2L);
+        assertEquals(List.of(), index.search("cau long", null, null, null));
+        verify(courtRepository, times(1)).findAllSearchDocuments();
+    }
+
+    @Test
+    void rebuildSwapsInDatabaseStateAndKeepsWritesCommittedWhileLoading() {
+        index.search("cau", null, null, null);
+        when(courtRepository.findAllSearchDocuments()).thenAnswer(invocation -> {
+            // Committed on this node while the rebuild is reading
+            index.index(court(5L, "Sân Cầu Lông Cầu Giấy", "3 Xuân Thủy, Hà Nội", "90000", 5));
+            return List.of(row(court(1L, "Sân Cầu Lông Đống Đa", "12 Tôn Đức Thắng, Hà Nội", "120000", 1)));
+        });
+
+        index.rebuild();
+
+        // Court 2 was deleted by another node, court 5 was indexed during the reload
+        assertEquals(List.of(5L, 1L), index.search("cau long", null, null, null));
+        assertEquals(2, index.size());
+    }
+
+    private static CourtSearchDocument row(Court court) {
+        CourtSearchDocument row = mock(CourtSearchDocument.class);
+        when(row.getId()).thenReturn(court.getId());
+        when(row.getName()).thenReturn(court.getName());
+        when(row.getAddress()).thenReturn(court.getAddress());
+        when(row.getPricePerHour()).thenReturn(court.getPricePerHour());
+        when(row.getStatus()).thenReturn(court.getStatus());
+        when(row.getCreatedAt()).thenReturn(court.getCreatedAt());
+        return row;
+    }
+
+    private static Court court(Long id, String name, String address, String price, int day) {
+        Court court = new Court();
+        court.setId(id);
+        court.setName(name);
+        court.setAddress(address);
+        court.setPricePerHour(new BigDecimal(price));
+        court.setStatus(Court.CourtStatus.ACTIVE);
+        court.setCreatedAt(LocalDateTime.of(2030, 1, day, 0, 0));
+        return court;
+    }
+}
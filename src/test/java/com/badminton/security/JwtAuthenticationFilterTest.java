@@ -0,0 +1,116 @@
+package com.badminton.security;
+
+import com.badminton.entity.User;
+import com.badminton.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String body = "{\"fullName\":\"Filter Test\",\"email\":\"filter@test.vn\","
+                + "\"phone\":\"0911111111\",\"password\":\"secret123\"}";
+        String response = mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode json = objectMapper.readTree(response);
+        token = json.path("data").path("token").asText();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByEmail("filter@test.vn").ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void authenticatedRequestDoesNotQueryUserTable() throws Exception {
+        // Warm the token version table once
+        mockMvc.perform(get("/bookings/my-bookings").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/bookings/my-bookings").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // Only the ETag version lookup, the service's user existence check and the bookings page itself
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void revokedTokenIsRejected() throws Exception {
+        User user = userRepository.findByEmail("filter@test.vn").orElseThrow();
+        userRepository.delete(user);
+        tokenVersionRegistry.revokeDeleted(user.getId());
+
+        mockMvc.perform(get("/bookings/my-bookings").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void changesMadeOutsideThisNodeExpireAfterTtl() throws Exception {
+        TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, Duration.ofMillis(50));
+        User user = userRepository.findByEmail("filter@test.vn").orElseThrow();
+        int version = user.getTokenVersion();
+        assertTrue(registry.isCurrent(user.getId(), version, User.UserRole.USER));
+        assertFalse(registry.isCurrent(user.getId(), version, User.UserRole.ADMIN));
+
+        // Role changed directly in the database, e.g. by another node
+        user.setRole(User.UserRole.ADMIN);
+        userRepository.save(user);
+        Thread.sleep(100);
+        assertFalse(registry.isCurrent(user.getId(), version, User.UserRole.USER));
+        assertTrue(registry.isCurrent(user.getId(), version, User.UserRole.ADMIN));
+
+        user.setActive(false);
+        userRepository.save(user);
+        Thread.sleep(100);
+        assertFalse(registry.isCurrent(user.getId(), version, User.UserRole.ADMIN));
+    }
+}
@@ -0,0 +1,161 @@
+package com.badminton.security;
+
+import com.badminton.TestData;
+import com.badminton.entity.User;
+import com.badminton.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Default limits: 5 attempts per account, 20 per IP
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginRateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestData.newUser("ratelimit", User.UserRole.USER);
+        user.setPassword(passwordEncoder.encode("secret123"));
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void accountIsLimitedBeforeAnyLookupAndRefilledBySuccess() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            login("10.0.0.1", "RateLimit@test.vn", "wrong").andExpect(status().isUnauthorized());
+        }
+        // A successful login gives the owner their attempts back
+        login("10.0.0.2", "ratelimit@test.vn", "secret123").andExpect(status().isOk());
+        for (int i = 0; i < 5; i++) {
+            login("10.0.0.3", "ratelimit@test.vn", "wrong").andExpect(status().isUnauthorized());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        login("10.0.0.4", "ratelimit@test.vn", "secret123")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.success").value(false));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void ipIsLimitedAcrossAccounts() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            login("10.0.1.1", "nobody" + i + "@test.vn", "wrong").andExpect(status().isUnauthorized());
+        }
+        // By phone: a separate account key from the email the other test exhausts
+        login("10.0.1.1", user.getPhone(), "secret123").andExpect(status().isTooManyRequests());
+        login("10.0.1.2", user.getPhone(), "secret123").andExpect(status().isOk());
+    }
+
+    @Test
+    void bucketRefillsOneTokenPerInterval() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofSeconds(30), 1000);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("key"));
+        }
+        long wait = limiter.tryAcquire("key");
+        assertTrue(wait > Duration.ofSeconds(9).toNanos() && wait <= Duration.ofSeconds(10).toNanos(), "" + wait);
+        assertEquals(0, limiter.tryAcquire("other"));
+
+        limiter.reset("key");
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void replayedBodyCanBeReadAsynchronously() throws Exception {
+        LoginRateLimitFilter filter = new LoginRateLimitFilter(true, 20, Duration.ofMinutes(1), 5,
+                Duration.ofMinutes(5), 1000, new ObjectMapper(), new SimpleMeterRegistry());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        String body = "{\"emailOrPhone\":\"async@test.vn\",\"password\":\"secret123\"}";
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        read.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead[0] = true;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        assertTrue(allRead[0]);
+        assertEquals(body, read.toString(StandardCharsets.UTF_8));
+    }
+
+    private ResultActions login(String ip, String emailOrPhone, String password) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"emailOrPhone\":\"" + emailOrPhone + "\",\"password\":\"" + password + "\"}"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.badminton.security;
+
+import com.badminton.TestData;
+import com.badminton.entity.User;
+import com.badminton.exception.TooManyRequestsException;
+import com.badminton.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PasswordHashingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // Stored before the {id} prefix, at a lower cost than configured
+        user = TestData.newUser("hash", User.UserRole.USER);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret123"));
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void legacyHashIsUpgradedOnSuccessfulLogin() throws Exception {
+        login("wrong-password").andExpect(status().isUnauthorized());
+        assertTrue(userRepository.findById(user.getId()).orElseThrow().getPassword().startsWith("$2a$04$"));
+
+        login("secret123").andExpect(status().isOk());
+        String upgraded = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertTrue(upgraded.startsWith("{bcrypt}$2a$04$"), upgraded);
+
+        login("secret123").andExpect(status().isOk());
+        assertEquals(upgraded, userRepository.findById(user.getId()).orElseThrow().getPassword());
+    }
+
+    @Test
+    void fullQueueIsRejectedWithoutWaiting() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> executor.call(() -> {
+                running.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.call(() -> true));
+            while (meterRegistry.get("security.password.hash.queue").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            long start = System.nanoTime();
+            assertThrows(TooManyRequestsException.class, () -> executor.call(() -> true));
+            assertEquals(1, meterRegistry.counter("security.password.hash.rejected", "reason", "queue_full").count());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+            release.countDown();
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertTrue(queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private ResultActions login(String password) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"emailOrPhone\":\"hash@test.vn\",\"password\":\"" + password + "\"}"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.badminton.service;
+
+import com.badminton.TestData;
+import com.badminton.dto.request.BookingRequest;
+import com.badminton.dto.request.RecurringBookingRequest;
+import com.badminton.dto.response.BatchBookingResponse;
+import com.badminton.entity.Booking;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookingBatchTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User customer;
+    private Court court;
+    private LocalDate firstTuesday;
+
+    @BeforeEach
+    void setUp() {
+        User owner = TestData.newUser("batch-owner", User.UserRole.OWNER);
+        entityManager.persist(owner);
+        customer = TestData.newUser("batch-customer", User.UserRole.USER);
+        entityManager.persist(customer);
+
+        court = TestData.newCourt("Sân Batch", owner);
+        entityManager.persist(court);
+
+        firstTuesday = LocalDate.now().plusDays(1);
+        while (firstTuesday.getDayOfWeek() != java.time.DayOfWeek.TUESDAY) {
+            firstTuesday = firstTuesday.plusDays(1);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void weeklyRecurrenceIsCheckedAndInsertedInBulk() {
+        RecurringBookingRequest request = new RecurringBookingRequest(court.getId(), 1, "18:00", "20:00",
+                firstTuesday, firstTuesday.plusWeeks(11), RecurringBookingRequest.Frequency.WEEKLY, "CLB");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BatchBookingResponse response = bookingService.createRecurringBookings(request, customer.getId());
+        entityManager.flush();
+
+        assertEquals(12, response.getCreatedCount());
+        assertEquals(0, response.getRejectedCount());
+        assertEquals(firstTuesday.plusWeeks(11), response.getResults().get(11).getBookingDate());
+        assertNotNull(response.getResults().get(0).getBooking().getId());
+        // user, courts, one conflict query, one id pool and one batched insert - not 12 of each
+        assertTrue(statistics.getPrepareStatementCount() <= 5,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void eachOccurrenceGetsItsOwnResult() {
+        Booking existing = new Booking();
+        existing.setUser(entityManager.find(User.class, customer.getId()));
+        existing.setCourt(entityManager.find(Court.class, court.getId()));
+        existing.setBookingDate(firstTuesday);
+        existing.setCourtNumber(1);
+        existing.setStartTime(LocalTime.of(8, 0));
+        existing.setEndTime(LocalTime.of(9, 0));
+        existing.setTotalPrice(new BigDecimal("100000"));
+        entityManager.persist(existing);
+        entityManager.flush();
+
+        List<BookingRequest> requests = List.of(
+                request(firstTuesday, 1, "08:30", "09:30"),  // conflicts with the existing booking
+                request(firstTuesday, 2, "08:00", "10:00"),
+                request(firstTuesday, 2, "09:00", "11:00"),  // overlaps the previous occurrence
+                request(firstTuesday, 3, "08:00", "09:00"),  // no such court number
+                request(firstTuesday, 1, "09:00", "10:00"));
+
+        BatchBookingResponse response = bookingService.createBookings(requests, customer.getId());
+
+        assertEquals(2, response.getCreatedCount());
+        assertEquals(3, response.getRejectedCount());
+        List<BatchBookingResponse.OccurrenceResult> results = response.getResults();
+        assertEquals("Sân đã được đặt trong khung giờ này", results.get(0).getMessage());
+        assertTrue(results.get(1).getCreated());
+        assertEquals("Sân đã được đặt trong khung giờ này", results.get(2).getMessage());
+        assertEquals("Số sân không hợp lệ", results.get(3).getMessage());
+        assertTrue(results.get(4).getCreated());
+        assertFalse(results.get(0).getCreated());
+    }
+
+    private BookingRequest request(LocalDate date, int courtNumber, String startTime, String endTime) {
+        return new BookingRequest(court.getId(), date, startTime, endTime, courtNumber, null);
+    }
+}
@@ -0,0 +1,271 @@
+package com.badminton.service;
+
+import com.badminton.TestData;
+import com.badminton.dto.request.BookingRequest;
+import com.badminton.dto.response.BatchBookingResponse;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.exception.BadRequestException;
+import com.badminton.exception.BookingConflictException;
+import com.badminton.lock.BookingSlotLocks;
+import com.badminton.repository.BookingRepository;
+import com.badminton.repository.BookingSlotLockRepository;
+import com.badminton.repository.CourtRepository;
+import com.badminton.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Database mode so both the striped locks and the slot row lock are exercised; REPEATABLE READ
+// by default like MySQL, so a snapshot taken before the lock would hide the winner's booking
+@SpringBootTest(properties = {
+        "booking.slot-lock.database=true",
+        "spring.datasource.hikari.transaction-isolation=TRANSACTION_REPEATABLE_READ"
+})
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingSlotLocks slotLocks;
+
+    @Autowired
+    private BookingSlotLockRepository slotLockRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CourtRepository courtRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+    private TransactionTemplate transactionTemplate;
+    private User owner;
+    private User customer;
+    private Court court;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Same isolation as the booking writes
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        date = LocalDate.now().plusDays(3);
+
+        owner = TestData.owner(userRepository, "lock-owner");
+        customer = TestData.user(userRepository, "lock-customer", User.UserRole.USER);
+
+        court = TestData.newCourt("Sân Lock", owner);
+        court.setNumberOfCourts(4);
+        court = courtRepository.save(court);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        bookingRepository.deleteAll(bookingRepository.findByCourt(court));
+        slotLockRepository.deleteAll();
+        courtRepository.deleteById(court.getId());
+        userRepository.deleteById(customer.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void concurrentRequestsForOneSlotHaveExactlyOneWinner() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            // Overlapping ranges, some off the 15-minute grid so the DB check is hit too
+            LocalTime startTime = LocalTime.of(8, 0).plusMinutes(i % 4 * 15 + i % 3 * 5);
+            BookingRequest request = request(1, startTime, startTime.plusHours(1));
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.createBooking(request, customer.getId());
+                    return true;
+                } catch (BadRequestException e) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int winners = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                winners++;
+            }
+        }
+
+        assertEquals(1, winners);
+        assertEquals(THREADS - 1, rejected.get());
+        assertEquals(1, bookingRepository.findByCourt(court).size());
+    }
+
+    @Test
+    void unrelatedSlotsProceedWhileOneSlotIsHeld() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            slotLocks.lock(court.getId(), date, 1);
+            held.countDown();
+            await(release);
+        }));
+        assertTrue(held.await(10, TimeUnit.SECONDS));
+
+        // Other court numbers of the same court are not blocked
+        for (int courtNumber = 2; courtNumber <= 4; courtNumber++) {
+            BookingRequest request = request(courtNumber, LocalTime.of(8, 0), LocalTime.of(9, 0));
+            Future<?> other = executor.submit(() -> bookingService.createBooking(request, customer.getId()));
+            assertNotNull(other.get(5, TimeUnit.SECONDS));
+        }
+
+        // The held slot waits for the holder's transaction
+        BookingRequest blocked = request(1, LocalTime.of(8, 0), LocalTime.of(9, 0));
+        Future<?> waiting = executor.submit(() -> bookingService.createBooking(blocked, customer.getId()));
+        assertThrows(TimeoutException.class, () -> waiting.get(300, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        assertNotNull(waiting.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void waiterSeesBookingCommittedWhileItWaited() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> winner = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            bookingService.createBooking(request(1, LocalTime.of(8, 5), LocalTime.of(9, 5)), customer.getId());
+            held.countDown();
+            await(release);
+        }));
+        assertTrue(held.await(10, TimeUnit.SECONDS));
+
+        // Reads the user and court, then waits for the slot while the winner is still uncommitted.
+        // Off the 15-minute grid, so the occupancy index defers to the database query.
+        BookingRequest overlapping = request(1, LocalTime.of(8, 35), LocalTime.of(9, 35));
+        Future<?> waiter = executor.submit(() -> bookingService.createBooking(overlapping, customer.getId()));
+        assertThrows(TimeoutException.class, () -> waiter.get(300, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        winner.get(10, TimeUnit.SECONDS);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> waiter.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(BookingConflictException.class, failure.getCause());
+        assertEquals(1, bookingRepository.findByCourt(court).size());
+    }
+
+    @Test
+    void batchWaitingOnASlotSeesBookingCommittedMeanwhile() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> winner = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            bookingService.createBooking(request(2, LocalTime.of(10, 5), LocalTime.of(11, 5)), customer.getId());
+            held.countDown();
+            await(release);
+        }));
+        assertTrue(held.await(10, TimeUnit.SECONDS));
+
+        List<BookingRequest> batch = List.of(
+                request(1, LocalTime.of(10, 0), LocalTime.of(11, 0)),
+                request(2, LocalTime.of(10, 35), LocalTime.of(11, 35)));
+        Future<BatchBookingResponse> waiter = executor.submit(() -> bookingService.createBookings(batch,
+                customer.getId()));
+        assertThrows(TimeoutException.class, () -> waiter.get(300, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        winner.get(10, TimeUnit.SECONDS);
+        BatchBookingResponse response = waiter.get(10, TimeUnit.SECONDS);
+        assertEquals(1, response.getCreatedCount().intValue());
+        assertFalse(response.getResults().get(1).getCreated());
+        assertEquals(2, bookingRepository.findByCourt(court).size());
+    }
+
+    @Test
+    void slotRowLockExcludesWritersOnFirstClaim() throws Exception {
+        assertRowLockExcludesOtherNode();
+    }
+
+    @Test
+    void slotRowLockExcludesWritersOnExistingRow() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> slotLockRepository.lock(court.getId(), date, 1));
+        assertRowLockExcludesOtherNode();
+    }
+
+    // Simulates two nodes: the repository is used directly, without the striped locks
+    private void assertRowLockExcludesOtherNode() throws Exception {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> nodeA = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            claimRow();
+            held.countDown();
+            await(release);
+        }));
+        assertTrue(held.await(10, TimeUnit.SECONDS));
+
+        Future<?> nodeB = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> claimRow()));
+        assertThrows(TimeoutException.class, () -> nodeB.get(300, TimeUnit.MILLISECONDS));
+        assertFalse(nodeB.isDone());
+
+        release.countDown();
+        nodeA.get(10, TimeUnit.SECONDS);
+        nodeB.get(10, TimeUnit.SECONDS);
+    }
+
+    // Same statement as BookingSlotLocks in database mode
+    private void claimRow() {
+        slotLockRepository.lock(court.getId(), date, 1);
+    }
+
+    private BookingRequest request(int courtNumber, LocalTime startTime, LocalTime endTime) {
+        return new BookingRequest(court.getId(), date, startTime.toString(), endTime.toString(),
+                courtNumber, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
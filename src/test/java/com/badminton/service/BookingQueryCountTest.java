@@ -0,0 +1,150 @@
+package com.badminton.service;
+
+import com.badminton.TestData;
+import com.badminton.dto.response.BookingResponse;
+import com.badminton.dto.response.CursorPage;
+import com.badminton.entity.Booking;
+import com.badminton.entity.Court;
+import com.badminton.entity.User;
+import com.badminton.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookingQueryCountTest {
+
+    private static final int BOOKINGS = 30;
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by("createdAt").descending());
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User customer;
+    private User owner;
+    private Court court;
+
+    @BeforeEach
+    void setUp() {
+        owner = TestData.newUser("query-owner", User.UserRole.OWNER);
+        entityManager.persist(owner);
+        customer = TestData.newUser("query-customer", User.UserRole.USER);
+        entityManager.persist(customer);
+
+        court = TestData.newCourt("Sân Test", owner);
+        court.setNumberOfCourts(4);
+        entityManager.persist(court);
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setUser(customer);
+            booking.setCourt(court);
+            booking.setBookingDate(LocalDate.now().plusDays(1 + i / 4));
+            booking.setCourtNumber(1 + i % 4);
+            booking.setStartTime(LocalTime.of(8, 0));
+            booking.setEndTime(LocalTime.of(9, 0));
+            booking.setTotalPrice(new BigDecimal("100000"));
+            entityManager.persist(booking);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void allBookingsPageUsesOneSelectAndOneCount() {
+        Page<BookingResponse> page = bookingService.getAllBookings(PAGE);
+
+        assertEquals(20, page.getNumberOfElements());
+        assertEquals(BOOKINGS, page.getTotalElements());
+        assertEquals("Sân Test", page.getContent().get(0).getCourtName());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userBookingsPageUsesOneSelectAndOneCount() {
+        Page<BookingResponse> page = bookingService.getUserBookings(customer.getId(), PAGE);
+
+        assertEquals(20, page.getNumberOfElements());
+        assertEquals(customer.getPhone(), page.getContent().get(0).getUserPhone());
+        // user existence check, then the page and its count
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userBookingsOfUnknownUserAreNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> bookingService.getUserBookings(-1L, PAGE));
+    }
+
+    @Test
+    void ownerBookingsPageUsesOneSelectAndOneCount() {
+        Page<BookingResponse> page = bookingService.getOwnerBookings(owner.getId(), PAGE);
+
+        assertEquals(BOOKINGS, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void courtBookingsDoNotLoadAssociationsPerRow() {
+        List<BookingResponse> bookings = bookingService.getCourtBookings(court.getId(), owner.getId());
+
+        assertEquals(BOOKINGS, bookings.size());
+        // court for the permission check, then a single joined select
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cursorSlicesWalkAllBookingsWithoutCountQueries() {
+        CursorPage<BookingResponse> first = bookingService.getUserBookings(customer.getId(), null, 20);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(20, first.getSize());
+        assertTrue(first.getHasNext());
+
+        CursorPage<BookingResponse> second = bookingService.getUserBookings(customer.getId(), first.getNextCursor(), 20);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(BOOKINGS - 20, second.getSize());
+        assertFalse(second.getHasNext());
+        assertNull(second.getNextCursor());
+
+        Set<Long> ids = new HashSet<>();
+        first.getContent().forEach(booking -> ids.add(booking.getId()));
+        second.getContent().forEach(booking -> ids.add(booking.getId()));
+        assertEquals(BOOKINGS, ids.size());
+    }
+}
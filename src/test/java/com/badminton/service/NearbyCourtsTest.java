@@ -0,0 +1,118 @@
+package com.badminton.service;
+
+import com.badminton.TestData;
+import com.badminton.dto.response.CourtResponse;
+import com.badminton.entity.Booking;
+import com.badminton.entity.Court;
+import com.badminton.entity.TimeSlot;
+import com.badminton.entity.User;
+import com.badminton.search.CourtGeoIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class NearbyCourtsTest {
+
+    private static final double LAT = 21.0288;
+    private static final double LNG = 105.8525;
+
+    @Autowired
+    private CourtService courtService;
+
+    @Autowired
+    private CourtGeoIndex courtGeoIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        owner = TestData.newUser("nearby-owner", User.UserRole.OWNER);
+        entityManager.persist(owner);
+        day = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    void filtersByFreeSubCourtWithoutPerCourtQueries() {
+        Court fullyBooked = court("Sân Kín", 21.0300, 105.8530, 2);
+        Court blocked = court("Sân Khóa", 21.0350, 105.8450, 1);
+        Court free = court("Sân Trống", 21.0368, 105.8342, 2);
+        Court closedEarly = court("Sân Đóng Sớm", 21.0250, 105.8500, 1);
+        closedEarly.setCloseTime("18:00");
+        court("Sân Xa", 10.7769, 106.7009, 1);
+
+        book(fullyBooked, 1, "17:30", "19:00");
+        book(fullyBooked, 2, "18:30", "20:00");
+        book(free, 1, "18:00", "19:00");
+        TimeSlot slot = new TimeSlot();
+        slot.setCourt(blocked);
+        slot.setDate(day);
+        slot.setCourtNumber(1);
+        slot.setStartTime(LocalTime.of(18, 0));
+        slot.setEndTime(LocalTime.of(20, 0));
+        slot.setStatus(TimeSlot.SlotStatus.BLOCKED);
+        entityManager.persist(slot);
+        entityManager.flush();
+        entityManager.clear();
+        // Rebuild on this thread so the grid sees this test's uncommitted courts
+        courtGeoIndex.rebuild();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<CourtResponse> all = courtService.getNearbyCourts(LAT, LNG, 5, day, null, 20);
+        List<CourtResponse> available = courtService.getNearbyCourts(LAT, LNG, 5, day, LocalTime.of(18, 0), 20);
+
+        assertEquals(List.of("Sân Kín", "Sân Đóng Sớm", "Sân Khóa", "Sân Trống"),
+                all.stream().map(CourtResponse::getName).toList());
+        assertTrue(all.get(0).getDistanceKm() < all.get(1).getDistanceKm());
+        assertEquals(List.of("Sân Trống"), available.stream().map(CourtResponse::getName).toList());
+        // courts for each search, plus one booking and one blocked-slot query
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    private Court court(String name, double lat, double lng, int numberOfCourts) {
+        Court court = TestData.newCourt(name, owner);
+        court.setNumberOfCourts(numberOfCourts);
+        court.setLatitude(lat);
+        court.setLongitude(lng);
+        entityManager.persist(court);
+        return court;
+    }
+
+    private void book(Court court, int courtNumber, String start, String end) {
+        Booking booking = new Booking();
+        booking.setUser(owner);
+        booking.setCourt(court);
+        booking.setBookingDate(day);
+        booking.setCourtNumber(courtNumber);
+        booking.setStartTime(LocalTime.parse(start));
+        booking.setEndTime(LocalTime.parse(end));
+        booking.setTotalPrice(new BigDecimal("100000"));
+        entityManager.persist(booking);
+    }
+}